@@ -0,0 +1,102 @@
+package com.doors.gateway.benchmark;
+
+import com.doors.gateway.filter.JwtAuthenticationGatewayFilterFactory;
+import com.doors.gateway.jwt.JwkKeySources;
+import com.doors.gateway.jwt.VerifiedTokenCaches;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JwtAuthentication filter with an RS256 token, once answered from the verified-token
+ * cache and once with the cache disabled so every request parses and checks the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtVerificationBenchmark {
+
+    private JwkKeySources keySources;
+    private String token;
+    private List<GatewayFilter> cached;
+    private List<GatewayFilter> uncached;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey signingKey = new RSAKeyGenerator(2048).keyID("bench").generate();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(),
+                new JWTClaimsSet.Builder()
+                        .subject("alice")
+                        .issuer("https://auth.example.com")
+                        .audience("orders-api")
+                        .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                        .build());
+        jwt.sign(new RSASSASigner(signingKey));
+        token = jwt.serialize();
+
+        keySources = new JwkKeySources(Duration.ofMinutes(1));
+        JwtAuthenticationGatewayFilterFactory factory =
+                new JwtAuthenticationGatewayFilterFactory(keySources, new VerifiedTokenCaches());
+        String jwks = new JWKSet(signingKey.toPublicJWK()).toString();
+        cached = List.of(factory.apply(config("cached", jwks, 10_000)));
+        uncached = List.of(factory.apply(config("uncached", jwks, 0)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        keySources.destroy();
+    }
+
+    @Benchmark
+    public ServerWebExchange cacheHit() {
+        ServerWebExchange exchange = exchange();
+        FilterChains.run(cached, exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange cacheMiss() {
+        ServerWebExchange exchange = exchange();
+        FilterChains.run(uncached, exchange).block();
+        return exchange;
+    }
+
+    private ServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private static JwtAuthenticationGatewayFilterFactory.Config config(String routeId, String jwks, int cacheSize) {
+        JwtAuthenticationGatewayFilterFactory.Config config = new JwtAuthenticationGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setJwks(jwks);
+        config.setIssuer("https://auth.example.com");
+        config.setAudience("orders-api");
+        config.setCacheSize(cacheSize);
+        return config;
+    }
+}
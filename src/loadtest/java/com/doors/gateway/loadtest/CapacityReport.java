@@ -0,0 +1,83 @@
+package com.doors.gateway.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Markdown summary of all scenarios of one load test run
+ */
+public class CapacityReport {
+
+    private final LoadTestSettings settings;
+    private final List<String> rows = new ArrayList<>();
+
+    public CapacityReport(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public void add(LoadTestSettings.Scenario scenario, OpenLoadGenerator.Result result,
+                    JvmMetrics.Snapshot before, JvmMetrics.Snapshot after, long maxPauseMillis) {
+        Histogram latency = result.latency();
+        double seconds = (after.nanoTime() - before.nanoTime()) / 1e9;
+        double allocationRate = (after.allocatedBytes() - before.allocatedBytes()) / seconds / (1024 * 1024);
+        rows.add(String.format("| %s | %d | %.0f | %d | %d | %d | %s | %s | %s | %s | %s | %.1f | %d | %d | %d |",
+                scenario.name(),
+                settings.rate(),
+                result.throughput(),
+                result.errors(),
+                result.dropped(),
+                result.unanswered(),
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                allocationRate,
+                after.pauseCount() - before.pauseCount(),
+                after.pauseTotalMillis() - before.pauseTotalMillis(),
+                maxPauseMillis));
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Gateway Capacity Report\n\n");
+        sb.append("- Date: ").append(OffsetDateTime.now()).append('\n');
+        sb.append("- JVM: ").append(System.getProperty("java.vm.name")).append(' ')
+                .append(System.getProperty("java.version")).append(", ")
+                .append(Runtime.getRuntime().availableProcessors()).append(" CPUs, max heap ")
+                .append(Runtime.getRuntime().maxMemory() / (1024 * 1024)).append(" MB\n");
+        sb.append("- Routes: ").append(settings.routes()).append(", stub upstreams: ").append(settings.upstreams())
+                .append(", client connections: ").append(settings.connections()).append('\n');
+        sb.append("- Each scenario: ").append(settings.warmup().toSeconds()).append("s warmup, ")
+                .append(settings.duration().toSeconds()).append("s measured\n\n");
+        sb.append("Latency is measured from each request's scheduled start (coordinated omission corrected); ");
+        sb.append("dropped and unanswered requests count as lasting until the end of the drain. ");
+        sb.append("Dropped requests were shed by the load generator at max-in-flight and never sent; ");
+        sb.append("unanswered ones were sent but had no response when the drain timed out. ");
+        sb.append("Achieved req/s counts 200 responses only. ");
+        sb.append("Allocation excludes load generator and stub threads; GC pauses are for the whole JVM.\n\n");
+        sb.append("| Scenario | Offered req/s | Achieved req/s | Errors | Dropped | Unanswered | p50 ms | p90 ms | p99 ms | p99.9 ms | Max ms "
+                + "| Alloc MB/s | GC pauses | GC total ms | GC max ms |\n");
+        sb.append("|---|---|---|---|---|---|---|---|---|---|---|---|---|---|---|\n");
+        rows.forEach(row -> sb.append(row).append('\n'));
+        return sb.toString();
+    }
+
+    public Path write() throws IOException {
+        Path dir = Path.of(settings.reportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("capacity-report.md");
+        Files.writeString(file, render());
+        return file;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
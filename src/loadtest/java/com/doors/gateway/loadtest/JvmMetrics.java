@@ -0,0 +1,89 @@
+package com.doors.gateway.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocation and GC pause sampling for one measurement window. Allocation only counts
+ * threads that don't belong to the load generator or the stubs; GC pauses are process wide.
+ */
+public class JvmMetrics {
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final AtomicLong pauseCount = new AtomicLong();
+    private final AtomicLong pauseTotalMillis = new AtomicLong();
+    private final AtomicLong pauseMaxMillis = new AtomicLong();
+    private final List<Runnable> unregister = new ArrayList<>();
+
+    public JvmMetrics() {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        NotificationListener listener = (notification, handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            // Concurrent cycles don't stop application threads
+            if (info.getGcName().contains("Concurrent") || info.getGcName().contains("Cycles")) {
+                return;
+            }
+            long duration = info.getGcInfo().getDuration();
+            pauseCount.incrementAndGet();
+            pauseTotalMillis.addAndGet(duration);
+            pauseMaxMillis.accumulateAndGet(duration, Math::max);
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                unregister.add(() -> {
+                    try {
+                        emitter.removeNotificationListener(listener);
+                    } catch (Exception ignored) {
+                        // already removed
+                    }
+                });
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        long allocated = 0;
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids);
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null && bytes[i] > 0 && !isLoadTestThread(infos[i].getThreadName())) {
+                allocated += bytes[i];
+            }
+        }
+        return new Snapshot(System.nanoTime(), allocated, pauseCount.get(), pauseTotalMillis.get());
+    }
+
+    /**
+     * Reset the max pause so it covers only the next window
+     */
+    public long takeMaxPauseMillis() {
+        return pauseMaxMillis.getAndSet(0);
+    }
+
+    public void close() {
+        unregister.forEach(Runnable::run);
+    }
+
+    private static boolean isLoadTestThread(String name) {
+        return name.startsWith(StubUpstream.THREAD_PREFIX) || name.startsWith(OpenLoadGenerator.THREAD_PREFIX);
+    }
+
+    public record Snapshot(long nanoTime, long allocatedBytes, long pauseCount, long pauseTotalMillis) {
+    }
+}
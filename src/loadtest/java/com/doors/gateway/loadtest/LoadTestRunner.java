@@ -0,0 +1,144 @@
+package com.doors.gateway.loadtest;
+
+import com.doors.gateway.GatewayApplication;
+import com.doors.gateway.model.GatewayFilterDefinition;
+import com.doors.gateway.model.GatewayPredicateDefinition;
+import com.doors.gateway.model.GatewayRouteDefinition;
+import com.doors.gateway.service.DynamicRouteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts stub upstreams and the gateway with generated routes, then offers a constant
+ * request rate for each scenario and writes target/loadtest/capacity-report.md.
+ * Run with {@code mvn -Ploadtest verify}; see README for the -Dloadtest.* options.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        List<StubUpstream> upstreams = new ArrayList<>();
+        List<Integer> upstreamPorts = new ArrayList<>();
+        for (int i = 0; i < settings.upstreams(); i++) {
+            StubUpstream upstream = new StubUpstream();
+            upstreamPorts.add(upstream.start());
+            upstreams.add(upstream);
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.thymeleaf.cache=true",
+                        "logging.level.org.springframework.cloud.gateway=WARN",
+                        "logging.level.com.doors.gateway=INFO")
+                .run(args);
+        int gatewayPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        JvmMetrics jvmMetrics = new JvmMetrics();
+        OpenLoadGenerator generator = new OpenLoadGenerator(gatewayPort, settings.connections());
+        try {
+            createRoutes(context.getBean(DynamicRouteService.class), settings.routes(), upstreamPorts);
+            awaitRoute(gatewayPort, path(settings.routes() - 1, settings.routes(), "/stub?delayMs=0&bytes=0"));
+            CapacityReport report = new CapacityReport(settings);
+
+            for (LoadTestSettings.Scenario scenario : settings.scenarios()) {
+                String query = "/stub?delayMs=" + scenario.latency().toMillis() + "&bytes=" + scenario.payload().toBytes();
+                log.info("Scenario {}: warming up for {}s", scenario.name(), settings.warmup().toSeconds());
+                generator.run(i -> path(i, settings.routes(), query), settings.rate(), settings.warmup(), settings.maxInFlight());
+
+                log.info("Scenario {}: measuring {} req/s for {}s", scenario.name(), settings.rate(), settings.duration().toSeconds());
+                jvmMetrics.takeMaxPauseMillis();
+                JvmMetrics.Snapshot before = jvmMetrics.snapshot();
+                OpenLoadGenerator.Result result = generator.run(i -> path(i, settings.routes(), query),
+                        settings.rate(), settings.duration(), settings.maxInFlight());
+                JvmMetrics.Snapshot after = jvmMetrics.snapshot();
+                report.add(scenario, result, before, after, jvmMetrics.takeMaxPauseMillis());
+            }
+
+            Path file = report.write();
+            System.out.println(report.render());
+            log.info("Capacity report written to {}", file.toAbsolutePath());
+        } finally {
+            generator.close();
+            jvmMetrics.close();
+            context.close();
+            upstreams.forEach(StubUpstream::stop);
+        }
+    }
+
+    /**
+     * Spread requests evenly over all generated routes
+     */
+    private static String path(long request, int routes, String query) {
+        return "/lt/" + (request % routes) + query;
+    }
+
+    private static void createRoutes(DynamicRouteService routeService, int count, List<Integer> upstreamPorts) {
+        long start = System.nanoTime();
+        Flux.range(0, count)
+                .concatMap(i -> routeService.addRoute(buildRoute(i, upstreamPorts.get(i % upstreamPorts.size()))))
+                .blockLast(Duration.ofMinutes(10));
+        log.info("Created {} routes in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Route refreshes are asynchronous, poll until the last route created answers
+     */
+    private static void awaitRoute(int gatewayPort, String path) throws InterruptedException {
+        HttpClient client = HttpClient.create().baseUrl("http://127.0.0.1:" + gatewayPort);
+        long deadline = System.nanoTime() + Duration.ofMinutes(1).toNanos();
+        while (System.nanoTime() < deadline) {
+            Integer status = client.get().uri(path)
+                    .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                    .onErrorReturn(0)
+                    .block(Duration.ofSeconds(5));
+            if (status != null && status == 200) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Route for " + path + " did not become available");
+    }
+
+    private static GatewayRouteDefinition buildRoute(int index, int upstreamPort) {
+        GatewayPredicateDefinition pathPredicate = new GatewayPredicateDefinition();
+        pathPredicate.setName("Path");
+        Map<String, String> pathArgs = new LinkedHashMap<>();
+        pathArgs.put("_genkey_0", "/lt/" + index + "/**");
+        pathPredicate.setArgs(pathArgs);
+
+        GatewayFilterDefinition stripFilter = new GatewayFilterDefinition();
+        stripFilter.setName("StripPrefix");
+        Map<String, String> stripArgs = new LinkedHashMap<>();
+        stripArgs.put("_genkey_0", "2");
+        stripFilter.setArgs(stripArgs);
+
+        List<GatewayPredicateDefinition> predicates = new ArrayList<>();
+        predicates.add(pathPredicate);
+        List<GatewayFilterDefinition> filters = new ArrayList<>();
+        filters.add(stripFilter);
+
+        return GatewayRouteDefinition.builder()
+                .id("lt-route-" + index)
+                .uri("http://127.0.0.1:" + upstreamPort)
+                .predicates(predicates)
+                .filters(filters)
+                .order(0)
+                .description("Load test route " + index)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.doors.gateway.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test parameters, read from -Dloadtest.* system properties
+ */
+public record LoadTestSettings(int routes,
+                               int upstreams,
+                               int rate,
+                               Duration warmup,
+                               Duration duration,
+                               int maxInFlight,
+                               int connections,
+                               List<Scenario> scenarios,
+                               String reportDir) {
+
+    /**
+     * Upstream behaviour for one measured run
+     */
+    public record Scenario(Duration latency, DataSize payload) {
+
+        static Scenario parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario '" + spec + "', expected <latency>:<payload> e.g. 20ms:1KB");
+            }
+            return new Scenario(DurationStyle.detectAndParse(parts[0].trim()), DataSize.parse(parts[1].trim()));
+        }
+
+        public String name() {
+            return latency.toMillis() + "ms / " + payload.toBytes() + "B";
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String spec : property("scenarios", "0ms:1KB,20ms:1KB,20ms:64KB").split(",")) {
+            scenarios.add(Scenario.parse(spec));
+        }
+        return new LoadTestSettings(
+                Integer.parseInt(property("routes", "1000")),
+                Integer.parseInt(property("upstreams", "4")),
+                Integer.parseInt(property("rate", "2000")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "30s")),
+                Integer.parseInt(property("max-in-flight", "10000")),
+                Integer.parseInt(property("connections", "1000")),
+                scenarios,
+                property("report-dir", "target/loadtest"));
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,146 @@
+package com.doors.gateway.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model load: requests are started on a fixed schedule whether or not earlier ones
+ * have finished, and latency is measured from each request's scheduled start, so a stalled
+ * gateway shows up in the percentiles instead of silently lowering the offered rate.
+ */
+public class OpenLoadGenerator {
+
+    public static final String THREAD_PREFIX = "loadtest-client";
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    private final HttpClient client;
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loops;
+
+    public OpenLoadGenerator(int gatewayPort, int connections) {
+        this.connectionProvider = ConnectionProvider.builder(THREAD_PREFIX)
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.loops = LoopResources.create(THREAD_PREFIX);
+        this.client = HttpClient.create(connectionProvider)
+                .runOn(loops)
+                .baseUrl("http://127.0.0.1:" + gatewayPort);
+    }
+
+    /**
+     * Offer {@code rate} requests per second for {@code duration}; {@code uris} maps the
+     * request number to its path. Only 200 responses count as completed. Dropped requests and
+     * requests still unanswered when the drain times out are recorded as lasting until then.
+     */
+    public Result run(LongFunction<String> uris, int rate, Duration duration, int maxInFlight) throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong();
+        // Intended start of every request not recorded yet, removed by whoever records it
+        Map<Long, Long> pending = new ConcurrentHashMap<>();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = duration.toNanos() / interval;
+        CountDownLatch drained = new CountDownLatch(1);
+        AtomicReference<Long> startRef = new AtomicReference<>();
+
+        Thread driver = new Thread(() -> {
+            long start = System.nanoTime();
+            startRef.set(start);
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * interval;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                pending.put(i, intended);
+                // Past this point the gateway is hopelessly behind, count instead of queueing forever
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                long request = i;
+                client.get()
+                        .uri(uris.apply(i))
+                        .response((response, body) -> body.then().thenReturn(response.status().code()))
+                        .next()
+                        .defaultIfEmpty(0)
+                        .subscribe(
+                                status -> finish(recorder, pending, request, status == 200 ? completed : errors,
+                                        inFlight, lastCompletion),
+                                error -> finish(recorder, pending, request, errors, inFlight, lastCompletion));
+            }
+            drained.countDown();
+        }, THREAD_PREFIX + "-driver");
+        driver.start();
+        drained.await();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long end = System.nanoTime();
+        long unrecorded = 0;
+        for (Long request : pending.keySet()) {
+            Long intended = pending.remove(request);
+            if (intended != null) {
+                recorder.recordValue(Math.max(0, end - intended));
+                unrecorded++;
+            }
+        }
+        long elapsed = Math.max(1, lastCompletion.get() - startRef.get());
+        return new Result(total, completed.get(), errors.get(), dropped.get(), unrecorded - dropped.get(),
+                recorder.getIntervalHistogram(), elapsed);
+    }
+
+    private static void finish(Recorder recorder, Map<Long, Long> pending, long request, AtomicLong outcome,
+                               AtomicInteger inFlight, AtomicLong lastCompletion) {
+        Long intended = pending.remove(request);
+        if (intended == null) {
+            // Already recorded as unanswered at the drain deadline
+            return;
+        }
+        long now = System.nanoTime();
+        recorder.recordValue(Math.max(0, now - intended));
+        outcome.incrementAndGet();
+        lastCompletion.accumulateAndGet(now, Math::max);
+        inFlight.decrementAndGet();
+    }
+
+    public void close() {
+        connectionProvider.disposeLater().block();
+        loops.disposeLater().block();
+    }
+
+    /**
+     * Outcome of one run; latencies are in nanoseconds. {@code dropped} requests were never
+     * sent, {@code unanswered} ones were sent but still open at the drain deadline, and
+     * throughput counts 200 responses only.
+     */
+    public record Result(long sent, long completed, long errors, long dropped, long unanswered,
+                         Histogram latency, long elapsedNanos) {
+
+        public double throughput() {
+            return completed * 1e9 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.doors.gateway.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a fresh gateway JVM from process start until a proxied request first answers 200,
+ * repeated a few times for each route materialization mode, and writes target/startup/startup-report.md.
+ * The gateway gets {@code startup.routes} generated routes so the modes differ measurably.
+ * Run with {@code mvn -Pstartup verify}; add {@code -Pcds} or {@code -Paot} to measure those builds.
+ */
+@Slf4j
+public class StartupBenchmark {
+
+    private static final String PROBE_PATH = "/startup-probe/stub";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String ROUTES_FILE = "startup-routes.yml";
+    private static final List<String> ROUTE_FILTERS = List.of(
+            "StripPrefix=1",
+            "AddRequestHeader=X-Startup-Probe, true",
+            "SetResponseHeader=X-Gateway, doors",
+            "RemoveRequestHeader=Cookie");
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar"));
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        int routes = Integer.parseInt(System.getProperty("startup.routes", "500"));
+        List<String> modes = Arrays.asList(System.getProperty("startup.modes", "lazy,eager").split(","));
+        List<String> jvmArgs = split(System.getProperty("startup.jvm-args", ""));
+        Path reportDir = Path.of(System.getProperty("startup.report-dir", "target/startup"));
+
+        StubUpstream upstream = new StubUpstream();
+        int upstreamPort = upstream.start();
+        writeRoutes(jar.toAbsolutePath().getParent().resolve(ROUTES_FILE), routes, upstreamPort);
+        HttpClient client = HttpClient.create();
+        Map<String, long[]> results = new LinkedHashMap<>();
+        try {
+            for (String mode : modes) {
+                long[] millis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    millis[run] = measure(jar, jvmArgs, mode.trim(), client);
+                    log.info("{} run {}: first 200 after {} ms", mode, run + 1, millis[run]);
+                }
+                results.put(mode.trim(), millis);
+            }
+        } finally {
+            upstream.stop();
+        }
+
+        String report = report(jar, jvmArgs, routes, results);
+        Files.createDirectories(reportDir);
+        Path file = reportDir.resolve("startup-report.md");
+        Files.writeString(file, report);
+        System.out.println(report);
+        log.info("Startup report written to {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Generated routes plus the probe route, all with the same filters; replaces the
+     * routes of application.yml, whose example route would need internet access
+     */
+    private static void writeRoutes(Path file, int routes, int upstreamPort) throws IOException {
+        StringBuilder yaml = new StringBuilder("spring:\n  cloud:\n    gateway:\n      routes:\n");
+        for (int i = 0; i <= routes; i++) {
+            boolean probe = i == routes;
+            yaml.append("        - id: ").append(probe ? "startup-probe" : "generated-" + i).append('\n');
+            yaml.append("          uri: http://127.0.0.1:").append(upstreamPort).append('\n');
+            yaml.append("          predicates:\n");
+            yaml.append("            - Path=/").append(probe ? "startup-probe" : "generated-" + i).append("/**\n");
+            yaml.append("          filters:\n");
+            for (String filter : ROUTE_FILTERS) {
+                yaml.append("            - ").append(filter).append('\n');
+            }
+        }
+        Files.writeString(file, yaml);
+    }
+
+    private static long measure(Path jar, List<String> jvmArgs, String mode, HttpClient client)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.getFileName().toString());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.org.springframework.cloud.gateway=WARN");
+        command.add("--logging.level.com.doors.gateway=WARN");
+        command.add("--spring.config.additional-location=file:" + ROUTES_FILE);
+        command.add("--gateway.routes.lazy-materialization=" + "lazy".equals(mode));
+
+        File workingDirectory = jar.toAbsolutePath().getParent().toFile();
+        HttpClient probe = client.baseUrl("http://127.0.0.1:" + port);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(workingDirectory, "startup-benchmark.log")))
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Gateway exited with " + process.exitValue() + ", see startup-benchmark.log");
+                }
+                Integer status = probe.get().uri(PROBE_PATH)
+                        .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                        .onErrorReturn(0)
+                        .block(Duration.ofSeconds(5));
+                if (status != null && status == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No 200 from " + PROBE_PATH + " within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String report(Path jar, List<String> jvmArgs, int routes, Map<String, long[]> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Gateway Startup Report\n\n");
+        sb.append("- Date: ").append(OffsetDateTime.now()).append('\n');
+        sb.append("- JVM: ").append(System.getProperty("java.vm.name")).append(' ')
+                .append(System.getProperty("java.version")).append(", ")
+                .append(Runtime.getRuntime().availableProcessors()).append(" CPUs\n");
+        sb.append("- Jar: ").append(jar.getFileName()).append('\n');
+        sb.append("- Routes: ").append(routes).append(" generated plus the probe, ")
+                .append(ROUTE_FILTERS.size()).append(" filters each\n");
+        sb.append("- JVM arguments: ").append(jvmArgs.isEmpty() ? "(none)" : String.join(" ", jvmArgs)).append("\n\n");
+        sb.append("Time from process start to the first 200 on a proxied route. ");
+        sb.append("With -Paot the materialization mode is fixed at build time, so both rows use the built-in one.\n\n");
+        sb.append("| Mode | Runs | Min ms | Median ms | Max ms |\n");
+        sb.append("|---|---|---|---|---|\n");
+        results.forEach((mode, millis) -> {
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            sb.append("| ").append(mode)
+                    .append(" | ").append(sorted.length)
+                    .append(" | ").append(sorted[0])
+                    .append(" | ").append(sorted[sorted.length / 2])
+                    .append(" | ").append(sorted[sorted.length - 1]).append(" |\n");
+        });
+        return sb.toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> split(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.doors.gateway.loadtest;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimal Netty upstream: answers every request with {@code bytes} bytes after {@code delayMs}
+ * milliseconds, both taken from the query string. Runs on its own event loops so its
+ * threads can be told apart from the gateway's.
+ */
+public class StubUpstream {
+
+    public static final String THREAD_PREFIX = "loadtest-stub";
+
+    private static final LoopResources LOOPS = LoopResources.create(THREAD_PREFIX);
+
+    private final Map<Integer, ByteBuf> payloads = new ConcurrentHashMap<>();
+    private DisposableServer server;
+
+    public int start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(LOOPS)
+                .handle((request, response) -> {
+                    Map<String, List<String>> params = new QueryStringDecoder(request.uri()).parameters();
+                    long delayMs = Long.parseLong(first(params, "delayMs", "0"));
+                    int bytes = Integer.parseInt(first(params, "bytes", "0"));
+                    ByteBuf payload = payloads.computeIfAbsent(bytes,
+                            size -> Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(new byte[size])));
+                    Mono<ByteBuf> body = Mono.fromSupplier(payload::duplicate);
+                    if (delayMs > 0) {
+                        body = body.delaySubscription(Duration.ofMillis(delayMs));
+                    }
+                    return response.header("Content-Type", "application/octet-stream")
+                            .header("Content-Length", String.valueOf(bytes))
+                            .send(body);
+                })
+                .bindNow();
+        return server.port();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private static String first(Map<String, List<String>> params, String name, String defaultValue) {
+        List<String> values = params.get(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
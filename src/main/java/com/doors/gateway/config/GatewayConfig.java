@@ -1,9 +1,25 @@
 package com.doors.gateway.config;
 
+import com.doors.gateway.route.LazyRouteDefinitionRouteLocator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.CachingRouteLocator;
+import org.springframework.cloud.gateway.route.CompositeRouteLocator;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class GatewayConfig {
@@ -18,4 +34,30 @@ public class GatewayConfig {
                 // All routes configured via YAML or dynamically will be added here automatically
                 .build();
     }
+
+    /**
+     * Replaces the gateway's cached composite locator when lazy materialization is on,
+     * swapping the eager RouteDefinitionRouteLocator for the lazy one.
+     * Under AOT this condition is evaluated at build time.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "gateway.routes.lazy-materialization", havingValue = "true")
+    public RouteLocator cachedCompositeRouteLocator(List<RouteLocator> routeLocators,
+                                                    RouteDefinitionLocator routeDefinitionLocator,
+                                                    List<RoutePredicateFactory> predicateFactories,
+                                                    List<GatewayFilterFactory> gatewayFilterFactories,
+                                                    GatewayProperties gatewayProperties,
+                                                    ConfigurationService configurationService,
+                                                    ApplicationEventPublisher eventPublisher) {
+        List<RouteLocator> locators = new ArrayList<>();
+        for (RouteLocator locator : routeLocators) {
+            if (!(locator instanceof RouteDefinitionRouteLocator)) {
+                locators.add(locator);
+            }
+        }
+        locators.add(new LazyRouteDefinitionRouteLocator(routeDefinitionLocator, predicateFactories,
+                gatewayFilterFactories, gatewayProperties, configurationService, eventPublisher));
+        return new CachingRouteLocator(new CompositeRouteLocator(Flux.fromIterable(locators)));
+    }
 }
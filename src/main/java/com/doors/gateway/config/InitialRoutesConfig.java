@@ -6,8 +6,7 @@ import com.doors.gateway.model.GatewayRouteDefinition;
 import com.doors.gateway.service.DynamicRouteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -18,11 +17,19 @@ import java.util.Map;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class InitialRoutesConfig {
+public class InitialRoutesConfig implements SmartInitializingSingleton {
 
     private final DynamicRouteService dynamicRouteService;
 
-    @EventListener(ApplicationReadyEvent.class)
+    /**
+     * Runs once all singletons exist but before the web server starts,
+     * so the initial routes are in place when the first request arrives
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        createInitialRoutes();
+    }
+
     public void createInitialRoutes() {
         log.info("Creating initial routes...");
         
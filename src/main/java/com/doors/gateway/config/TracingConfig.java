@@ -0,0 +1,62 @@
+package com.doors.gateway.config;
+
+import com.doors.gateway.trace.Phase;
+import com.doors.gateway.trace.RequestTrace;
+import com.doors.gateway.trace.RequestTracingWebFilter;
+import com.doors.gateway.trace.TraceMarkFilter;
+import com.doors.gateway.trace.TraceRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Request tracing hooks: a web filter around the whole exchange, global filters at the
+ * start and end of the filter chain, and client callbacks for connection acquisition
+ * and the upstream response. Turn off with {@code gateway.tracing.enabled: false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public RequestTracingWebFilter requestTracingWebFilter(TraceRecorder recorder) {
+        return new RequestTracingWebFilter(recorder);
+    }
+
+    /**
+     * First global filter to run, i.e. right after the route was matched
+     */
+    @Bean
+    public TraceMarkFilter filterChainTraceFilter() {
+        return new TraceMarkFilter(Ordered.HIGHEST_PRECEDENCE, Phase.FILTER_CHAIN);
+    }
+
+    /**
+     * Last filter before the request is handed to the HTTP client
+     */
+    @Bean
+    public TraceMarkFilter routingTraceFilter() {
+        return new TraceMarkFilter(NettyRoutingFilter.ORDER - 1, Phase.CONNECTION);
+    }
+
+    @Bean
+    public HttpClientCustomizer tracingHttpClientCustomizer() {
+        return httpClient -> httpClient
+                // Called once a connection has been acquired, just before the request is written
+                .doOnRequest((request, connection) -> {
+                    RequestTrace trace = RequestTrace.from(request.currentContextView());
+                    if (trace != null) {
+                        trace.mark(Phase.UPSTREAM);
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    RequestTrace trace = RequestTrace.from(response.currentContextView());
+                    if (trace != null) {
+                        trace.mark(Phase.RESPONSE);
+                    }
+                });
+    }
+}
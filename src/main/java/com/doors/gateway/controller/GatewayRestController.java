@@ -1,6 +1,7 @@
 package com.doors.gateway.controller;
 
 import com.doors.gateway.model.GatewayRouteDefinition;
+import com.doors.gateway.model.RouteQuery;
 import com.doors.gateway.service.DynamicRouteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,11 +18,20 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class GatewayRestController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final DynamicRouteService dynamicRouteService;
 
+    /**
+     * One page of routes; takes the same q, field, sort, dir, page and size parameters
+     * as the admin list and reports the total in X-Total-Count
+     */
     @GetMapping
-    public Flux<GatewayRouteDefinition> getAllRoutes() {
-        return dynamicRouteService.getAllRoutes();
+    public Mono<ResponseEntity<Flux<GatewayRouteDefinition>>> getAllRoutes(RouteQuery query) {
+        return dynamicRouteService.searchRoutes(query)
+                .map(page -> ResponseEntity.ok()
+                        .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()))
+                        .body(Flux.fromIterable(page.getContent())));
     }
 
     @GetMapping("/{id}")
@@ -1,16 +1,23 @@
 package com.doors.gateway.controller;
 
+import com.doors.gateway.limit.AdaptiveLimiter;
+import com.doors.gateway.limit.ConcurrencyLimiterRegistry;
 import com.doors.gateway.model.GatewayRouteDefinition;
 import com.doors.gateway.model.GatewayPredicateDefinition;
 import com.doors.gateway.model.GatewayFilterDefinition;
+import com.doors.gateway.model.RouteQuery;
 import com.doors.gateway.model.SimpleRouteForm;
 import com.doors.gateway.service.DynamicRouteService;
+import com.doors.gateway.trace.OtlpJsonExporter;
+import com.doors.gateway.trace.TraceRecorder;
 import com.doors.gateway.util.MapConverter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.thymeleaf.spring6.context.webflux.ReactiveDataDriverContextVariable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
@@ -24,13 +31,36 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GatewayWebController {
 
+    private static final int ROUTE_CHUNK_SIZE = 20;
+    private static final int ROUTE_TRACE_LIMIT = 50;
+
     private final DynamicRouteService dynamicRouteService;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final TraceRecorder traceRecorder;
+    private final OtlpJsonExporter otlpJsonExporter;
+
+    @ModelAttribute("limiters")
+    public Map<String, AdaptiveLimiter> limiters() {
+        return limiterRegistry.getLimiters();
+    }
 
     @GetMapping("/routes")
-    public Mono<String> listRoutes(Model model) {
-        return dynamicRouteService.getAllRoutes()
-                .collectList()
-                .doOnNext(routes -> model.addAttribute("routes", routes))
+    public Mono<String> listRoutes(@ModelAttribute("query") RouteQuery query, Model model) {
+        return renderRouteList(query, model);
+    }
+
+    /**
+     * Render one page of routes; the page is streamed to the template through the
+     * reactive data driver so large pages are flushed in chunks
+     */
+    private Mono<String> renderRouteList(RouteQuery query, Model model) {
+        return dynamicRouteService.searchRoutes(query)
+                .doOnNext(page -> {
+                    model.addAttribute("query", page.getQuery());
+                    model.addAttribute("page", page);
+                    model.addAttribute("routes", new ReactiveDataDriverContextVariable(
+                            Flux.fromIterable(page.getContent()), ROUTE_CHUNK_SIZE));
+                })
                 .thenReturn("routes/index");
     }
 
@@ -54,10 +84,7 @@ public class GatewayWebController {
                 })
                 .switchIfEmpty(Mono.defer(() -> {
                     model.addAttribute("error", "Route not found: " + id);
-                    return dynamicRouteService.getAllRoutes()
-                            .collectList()
-                            .doOnNext(routes -> model.addAttribute("routes", routes))
-                            .thenReturn("routes/index");
+                    return renderRouteList(new RouteQuery(), model);
                 }));
     }
 
@@ -83,10 +110,7 @@ public class GatewayWebController {
                         ? "Route updated successfully: " + route.getId()
                         : "Route created successfully: " + route.getId();
                     model.addAttribute("success", message);
-                    return dynamicRouteService.getAllRoutes()
-                            .collectList()
-                            .doOnNext(routes -> model.addAttribute("routes", routes))
-                            .thenReturn("routes/index");
+                    return renderRouteList(new RouteQuery(), model);
                 })
                 .onErrorResume(e -> {
                     log.error("Error saving route", e);
@@ -102,18 +126,12 @@ public class GatewayWebController {
         return dynamicRouteService.deleteRoute(id)
                 .flatMap(result -> {
                     model.addAttribute("success", "Route deleted successfully: " + id);
-                    return dynamicRouteService.getAllRoutes()
-                            .collectList()
-                            .doOnNext(routes -> model.addAttribute("routes", routes))
-                            .thenReturn("routes/index");
+                    return renderRouteList(new RouteQuery(), model);
                 })
                 .onErrorResume(e -> {
                     log.error("Error deleting route", e);
                     model.addAttribute("error", "Error deleting route: " + e.getMessage());
-                    return dynamicRouteService.getAllRoutes()
-                            .collectList()
-                            .doOnNext(routes -> model.addAttribute("routes", routes))
-                            .thenReturn("routes/index");
+                    return renderRouteList(new RouteQuery(), model);
                 });
     }
 
@@ -122,17 +140,27 @@ public class GatewayWebController {
         return dynamicRouteService.getRouteById(id)
                 .flatMap(route -> {
                     model.addAttribute("route", route);
+                    model.addAttribute("tracing", traceRecorder);
+                    model.addAttribute("traces", traceRecorder.recent(id, ROUTE_TRACE_LIMIT));
                     return Mono.just("routes/route-details");
                 })
                 .switchIfEmpty(Mono.defer(() -> {
                     model.addAttribute("error", "Route not found: " + id);
-                    return dynamicRouteService.getAllRoutes()
-                            .collectList()
-                            .doOnNext(routes -> model.addAttribute("routes", routes))
-                            .thenReturn("routes/index");
+                    return renderRouteList(new RouteQuery(), model);
                 }));
     }
 
+    /**
+     * Recently kept traces of a route, newest first, as OTLP/JSON. Traces expose request
+     * paths and upstream timings, so this stays behind the admin login.
+     */
+    @GetMapping("/routes/view/{id}/traces")
+    @ResponseBody
+    public Map<String, Object> exportRouteTraces(@PathVariable String id,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        return otlpJsonExporter.export(traceRecorder.recent(id, limit));
+    }
+
     @GetMapping
     public String adminHome() {
         return "redirect:/admin/routes";
@@ -158,10 +186,7 @@ public class GatewayWebController {
             return dynamicRouteService.addRoute(route)
                     .flatMap(result -> {
                         model.addAttribute("success", "Route created successfully: " + form.getRouteId());
-                        return dynamicRouteService.getAllRoutes()
-                                .collectList()
-                                .doOnNext(routes -> model.addAttribute("routes", routes))
-                                .thenReturn("routes/index");
+                        return renderRouteList(new RouteQuery(), model);
                     })
                     .onErrorResume(e -> {
                         log.error("Error creating simple route", e);
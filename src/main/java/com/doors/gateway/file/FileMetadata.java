@@ -0,0 +1,30 @@
+package com.doors.gateway.file;
+
+import java.nio.file.Path;
+
+/**
+ * Cached stat of a file served by a file:// route, with its precompressed siblings
+ *
+ * @param realPath the file with all symbolic links resolved, null when it does not exist
+ */
+public record FileMetadata(Path path,
+                           Path realPath,
+                           boolean exists,
+                           boolean directory,
+                           long size,
+                           long lastModified,
+                           String etag,
+                           Variant gzip,
+                           Variant brotli,
+                           long checkedAt) {
+
+    /**
+     * A precompressed copy of the file, e.g. app.js.gz next to app.js; the path has symbolic links resolved
+     */
+    public record Variant(Path path, String encoding, long size, String etag) {
+    }
+
+    static FileMetadata missing(Path path, long checkedAt) {
+        return new FileMetadata(path, null, false, false, 0, 0, null, null, null, checkedAt);
+    }
+}
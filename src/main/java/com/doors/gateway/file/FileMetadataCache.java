@@ -0,0 +1,102 @@
+package com.doors.gateway.file;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of file attributes so hot static files are not stat'ed on every request.
+ * Hits are answered on the calling thread; misses and expired entries are read on the
+ * bounded elastic scheduler, never on the event loop. Missing files are not cached, so
+ * requests for arbitrary nonexistent paths cannot push out the hot entries.
+ */
+@Component
+public class FileMetadataCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<Path, FileMetadata> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public FileMetadataCache(@Value("${gateway.static-files.metadata-ttl:2s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Mono<FileMetadata> get(Path file) {
+        FileMetadata cached = entries.get(file);
+        if (cached != null && System.nanoTime() - cached.checkedAt() < ttlNanos) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> refresh(file))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private FileMetadata refresh(Path file) {
+        long now = System.nanoTime();
+        FileMetadata fresh = load(file, now);
+        if (!fresh.exists()) {
+            entries.remove(file);
+            return fresh;
+        }
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(file)) {
+            entries.values().removeIf(entry -> now - entry.checkedAt() >= ttlNanos);
+            if (entries.size() >= MAX_ENTRIES) {
+                // Full of live entries, serve this one uncached rather than evict hot files
+                return fresh;
+            }
+        }
+        entries.put(file, fresh);
+        return fresh;
+    }
+
+    private FileMetadata load(Path file, long now) {
+        BasicFileAttributes attributes = readAttributes(file);
+        Path realPath = realPath(file);
+        if (attributes == null || realPath == null) {
+            return FileMetadata.missing(file, now);
+        }
+        if (attributes.isDirectory()) {
+            return new FileMetadata(file, realPath, true, true, 0, 0, null, null, null, now);
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        String tag = Long.toHexString(size) + "-" + Long.toHexString(lastModified);
+        return new FileMetadata(file, realPath, true, false, size, lastModified, "\"" + tag + "\"",
+                variant(file, ".gz", "gzip", tag), variant(file, ".br", "br", tag), now);
+    }
+
+    private FileMetadata.Variant variant(Path file, String suffix, String encoding, String tag) {
+        Path path = file.resolveSibling(file.getFileName() + suffix);
+        BasicFileAttributes attributes = readAttributes(path);
+        Path realPath = realPath(path);
+        if (attributes == null || realPath == null || !attributes.isRegularFile()) {
+            return null;
+        }
+        return new FileMetadata.Variant(realPath, encoding, attributes.size(), "\"" + tag + "-" + encoding + "\"");
+    }
+
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
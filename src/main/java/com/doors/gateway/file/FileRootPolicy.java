@@ -0,0 +1,50 @@
+package com.doors.gateway.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Directories file:// routes may serve from, set with {@code gateway.static-files.allowed-roots}.
+ * With no roots configured, file routes are refused altogether.
+ */
+@Slf4j
+@Component
+public class FileRootPolicy {
+
+    private final List<Path> allowedRoots = new ArrayList<>();
+
+    public FileRootPolicy(@Value("${gateway.static-files.allowed-roots:}") List<String> roots) {
+        for (String root : roots) {
+            if (root.isBlank()) {
+                continue;
+            }
+            try {
+                allowedRoots.add(Path.of(root.trim()).toRealPath());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring static file root {}: {}", root, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether a path, with symbolic links already resolved, lies in one of the allowed roots
+     */
+    public boolean isAllowed(Path realPath) {
+        for (Path root : allowedRoots) {
+            if (realPath.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Path> getAllowedRoots() {
+        return allowedRoots;
+    }
+}
@@ -0,0 +1,107 @@
+package com.doors.gateway.filter;
+
+import com.doors.gateway.limit.AdaptiveLimiter;
+import com.doors.gateway.limit.AimdLimiter;
+import com.doors.gateway.limit.ConcurrencyLimiterRegistry;
+import com.doors.gateway.limit.GradientLimiter;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds requests with 503 once a route has as many requests in flight as its
+ * adaptive limit allows. Configured as e.g. {@code AdaptiveConcurrencyLimit=GRADIENT, 20, 500}.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(ConcurrencyLimiterRegistry limiterRegistry) {
+        super(Config.class);
+        this.limiterRegistry = limiterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("algorithm", "initialLimit", "maxLimit");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Every route refresh re-applies the factory; keep the limiter that has been learning
+        AdaptiveLimiter limiter = config.getRouteId() != null
+                ? limiterRegistry.obtain(config.getRouteId(), config, () -> createLimiter(config))
+                : createLimiter(config);
+        log.debug("Adaptive concurrency limit for route {}: {} starting at {}",
+                config.getRouteId(), limiter.getAlgorithm(), limiter.getLimit());
+
+        return (exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return response.setComplete();
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                limiter.onSample(System.nanoTime() - start, dropped);
+            });
+        };
+    }
+
+    private AdaptiveLimiter createLimiter(Config config) {
+        return switch (config.getAlgorithm()) {
+            case AIMD -> new AimdLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                    config.getBackoffRatio(), TimeUnit.MILLISECONDS.toNanos(config.getTimeoutMillis()));
+            case GRADIENT -> new GradientLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                    config.getBackoffRatio());
+        };
+    }
+
+    public enum Algorithm {
+        GRADIENT,
+        AIMD
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private Algorithm algorithm = Algorithm.GRADIENT;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 1;
+
+        private int maxLimit = 1000;
+
+        /**
+         * Factor the limit is multiplied by when a request fails
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * AIMD only: round trip time above which a request counts as a drop
+         */
+        private long timeoutMillis = 5000;
+    }
+}
@@ -0,0 +1,248 @@
+package com.doors.gateway.filter;
+
+import com.doors.gateway.file.FileMetadata;
+import com.doors.gateway.file.FileMetadataCache;
+import com.doors.gateway.file.FileRootPolicy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Serves routes with a {@code file:///some/dir} URI from the local disk. Bodies go out
+ * through sendfile when the server supports zero-copy; single byte ranges, conditional
+ * requests and precompressed {@code .br}/{@code .gz} siblings are supported. Only roots
+ * listed in {@code gateway.static-files.allowed-roots} are served.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileRoutingFilter implements GlobalFilter, Ordered {
+
+    public static final int FILE_ROUTING_FILTER_ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+
+    private static final String INDEX_FILE = "index.html";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileMetadataCache metadataCache;
+    private final FileRootPolicy rootPolicy;
+
+    @Override
+    public int getOrder() {
+        return FILE_ROUTING_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (isAlreadyRouted(exchange) || requestUrl == null || route == null
+                || !"file".equals(requestUrl.getScheme())) {
+            return chain.filter(exchange);
+        }
+        setAlreadyRouted(exchange);
+
+        ServerHttpResponse response = exchange.getResponse();
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            response.setStatusCode(HttpStatus.METHOD_NOT_ALLOWED);
+            response.getHeaders().setAllow(Set.of(HttpMethod.GET, HttpMethod.HEAD));
+            return response.setComplete();
+        }
+
+        Path root;
+        Path file;
+        try {
+            root = Paths.get(route.getUri()).normalize();
+            String requestPath = requestUrl.getPath();
+            String relative = requestPath == null ? "" : StringUtils.trimLeadingCharacter(requestPath, '/');
+            file = root.resolve(relative).normalize();
+        } catch (InvalidPathException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return notFound(response);
+        }
+        if (!file.startsWith(root)) {
+            return notFound(response);
+        }
+
+        return metadataCache.get(root)
+                .zipWith(metadataCache.get(file))
+                .flatMap(pair -> {
+                    FileMetadata rootMetadata = pair.getT1();
+                    if (!rootMetadata.directory()) {
+                        return notFound(response);
+                    }
+                    // Also covers file:// routes loaded from YAML, which skip DynamicRouteService validation
+                    if (!rootPolicy.isAllowed(rootMetadata.realPath())) {
+                        log.warn("Route {} serves {}, which is not under gateway.static-files.allowed-roots",
+                                route.getId(), root);
+                        return notFound(response);
+                    }
+                    Path realRoot = rootMetadata.realPath();
+                    FileMetadata metadata = pair.getT2();
+                    Mono<FileMetadata> target = metadata.directory()
+                            ? metadataCache.get(file.resolve(INDEX_FILE))
+                            : Mono.just(metadata);
+                    return target.flatMap(resolved -> {
+                        // Compare resolved paths so symbolic links inside the root cannot point outside it
+                        if (!resolved.exists() || resolved.directory() || !resolved.realPath().startsWith(realRoot)) {
+                            return notFound(response);
+                        }
+                        return serve(exchange, resolved, realRoot);
+                    });
+                });
+    }
+
+    private Mono<Void> notFound(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_FOUND);
+        return response.setComplete();
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, FileMetadata metadata, Path realRoot) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+
+        List<HttpRange> ranges = parseRanges(requestHeaders, metadata);
+        // Ranges always refer to the uncompressed file
+        FileMetadata.Variant variant = ranges.isEmpty() ? selectVariant(metadata, requestHeaders, realRoot) : null;
+        if (metadata.gzip() != null || metadata.brotli() != null) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        String etag = variant != null ? variant.etag() : metadata.etag();
+        if (exchange.checkNotModified(etag, Instant.ofEpochMilli(metadata.lastModified()))) {
+            return response.setComplete();
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(metadata.path().getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentType(contentType);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        Path path = variant != null ? variant.path() : metadata.realPath();
+        long size = variant != null ? variant.size() : metadata.size();
+        long position = 0;
+        long count = size;
+        if (variant != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            long start;
+            long end;
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                start = size;
+                end = -1;
+            }
+            // HttpRange does not reject a first byte past the end, e.g. bytes=20-30 of a 10 byte file
+            if (start >= size || end < start) {
+                response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return response.setComplete();
+            }
+            position = start;
+            count = end - start + 1;
+            response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        } else {
+            response.setStatusCode(HttpStatus.OK);
+        }
+        headers.setContentLength(count);
+
+        if (HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return response.setComplete();
+        }
+        if (response instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(path, position, count);
+        }
+        // Decorated responses can't do sendfile, stream the file through buffers instead
+        Flux<DataBuffer> body = DataBufferUtils.read(path, response.bufferFactory(), BUFFER_SIZE);
+        return response.writeWith(DataBufferUtils.takeUntilByteCount(
+                DataBufferUtils.skipUntilByteCount(body, position), count));
+    }
+
+    /**
+     * Requested ranges, or none when the header is missing, malformed, or If-Range no longer matches.
+     * Multiple ranges are answered with the full file.
+     */
+    private List<HttpRange> parseRanges(HttpHeaders requestHeaders, FileMetadata metadata) {
+        if (!requestHeaders.containsKey(HttpHeaders.RANGE)) {
+            return List.of();
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(metadata.etag())) {
+            return List.of();
+        }
+        try {
+            List<HttpRange> ranges = requestHeaders.getRange();
+            return ranges.size() == 1 ? ranges : List.of();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private FileMetadata.Variant selectVariant(FileMetadata metadata, HttpHeaders requestHeaders, Path realRoot) {
+        if (metadata.gzip() == null && metadata.brotli() == null) {
+            return null;
+        }
+        boolean brotli = false;
+        boolean gzip = false;
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String token : value.split(",")) {
+                String[] parts = token.trim().split(";");
+                if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?")) {
+                    continue;
+                }
+                brotli |= "br".equals(parts[0].trim());
+                gzip |= "gzip".equals(parts[0].trim());
+            }
+        }
+        if (brotli && isUnder(metadata.brotli(), realRoot)) {
+            return metadata.brotli();
+        }
+        if (gzip && isUnder(metadata.gzip(), realRoot)) {
+            return metadata.gzip();
+        }
+        return null;
+    }
+
+    private static boolean isUnder(FileMetadata.Variant variant, Path realRoot) {
+        return variant != null && variant.path().startsWith(realRoot);
+    }
+}
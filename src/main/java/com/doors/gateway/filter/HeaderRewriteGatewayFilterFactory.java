@@ -0,0 +1,241 @@
+package com.doors.gateway.filter;
+
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a list of header rules in one pass per direction. Each rule is
+ * {@code <request|response>.<set|add|remove> <Header-Name> [value]}, where the value
+ * may reference path variables as {@code {name}}. Rules are compiled once per route.
+ * As with the stock header filters, a request whose path lacks a referenced variable
+ * fails with an IllegalArgumentException instead of sending an empty header.
+ */
+@Component
+public class HeaderRewriteGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<HeaderRewriteGatewayFilterFactory.Config> {
+
+    public HeaderRewriteGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public ShortcutType shortcutType() {
+        return ShortcutType.GATHER_LIST;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("rules");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<HeaderOperation> requestOps = new ArrayList<>();
+        List<HeaderOperation> responseOps = new ArrayList<>();
+        for (String rule : config.getRules()) {
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            HeaderOperation op = HeaderOperation.parse(trimmed);
+            (op.request ? requestOps : responseOps).add(op);
+        }
+        HeaderOperation[] request = requestOps.toArray(new HeaderOperation[0]);
+        HeaderOperation[] response = responseOps.toArray(new HeaderOperation[0]);
+        boolean requestUsesVariables = usesVariables(request);
+        boolean responseUsesVariables = usesVariables(response);
+
+        return (exchange, chain) -> {
+            Map<String, String> requestVariables = requestUsesVariables
+                    ? ServerWebExchangeUtils.getUriTemplateVariables(exchange) : Map.of();
+            Map<String, String> responseVariables = responseUsesVariables
+                    ? ServerWebExchangeUtils.getUriTemplateVariables(exchange) : Map.of();
+            try {
+                // Checked up front so a missing variable fails before any header is touched
+                requireVariables(request, requestVariables);
+                requireVariables(response, responseVariables);
+            } catch (IllegalArgumentException e) {
+                return Mono.error(e);
+            }
+
+            ServerWebExchange current = exchange;
+            if (request.length > 0) {
+                // One mutable copy of the request headers for all rules
+                ServerHttpRequest mutated = exchange.getRequest().mutate()
+                        .headers(headers -> applyAll(request, headers, requestVariables))
+                        .build();
+                current = exchange.mutate().request(mutated).build();
+            }
+            if (response.length > 0) {
+                // Response headers are writable until commit, so edit them in place
+                HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+                exchange.getResponse().beforeCommit(() -> {
+                    applyAll(response, responseHeaders, responseVariables);
+                    return Mono.empty();
+                });
+            }
+            return chain.filter(current);
+        };
+    }
+
+    private static void applyAll(HeaderOperation[] ops, HttpHeaders headers, Map<String, String> variables) {
+        for (HeaderOperation op : ops) {
+            op.apply(headers, variables);
+        }
+    }
+
+    private static void requireVariables(HeaderOperation[] ops, Map<String, String> variables) {
+        for (HeaderOperation op : ops) {
+            if (op.value != null) {
+                op.value.requireVariables(variables);
+            }
+        }
+    }
+
+    private static boolean usesVariables(HeaderOperation[] ops) {
+        for (HeaderOperation op : ops) {
+            if (op.value != null && op.value.hasVariables()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum Action {
+        SET,
+        ADD,
+        REMOVE
+    }
+
+    /**
+     * One compiled rule
+     */
+    private static final class HeaderOperation {
+
+        private final boolean request;
+        private final Action action;
+        private final String name;
+        private final HeaderTemplate value;
+
+        private HeaderOperation(boolean request, Action action, String name, HeaderTemplate value) {
+            this.request = request;
+            this.action = action;
+            this.name = name;
+            this.value = value;
+        }
+
+        static HeaderOperation parse(String rule) {
+            String[] parts = rule.split("\\s+", 3);
+            int dot = parts[0].indexOf('.');
+            if (dot < 0 || parts.length < 2) {
+                throw new IllegalArgumentException("Invalid header rule '" + rule
+                        + "', expected <request|response>.<set|add|remove> <Header-Name> [value]");
+            }
+            String scope = parts[0].substring(0, dot);
+            if (!"request".equals(scope) && !"response".equals(scope)) {
+                throw new IllegalArgumentException("Invalid header rule scope '" + scope + "' in '" + rule + "'");
+            }
+            Action action;
+            try {
+                action = Action.valueOf(parts[0].substring(dot + 1).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid header rule action in '" + rule + "'");
+            }
+            if (action != Action.REMOVE && parts.length < 3) {
+                throw new IllegalArgumentException("Header rule '" + rule + "' needs a value");
+            }
+            if (action == Action.REMOVE && parts.length > 2) {
+                throw new IllegalArgumentException("Header rule '" + rule + "' removes a header and takes no value");
+            }
+            HeaderTemplate value = action == Action.REMOVE ? null : HeaderTemplate.compile(parts[2]);
+            return new HeaderOperation("request".equals(scope), action, parts[1].intern(), value);
+        }
+
+        void apply(HttpHeaders headers, Map<String, String> variables) {
+            switch (action) {
+                case SET -> headers.set(name, value.expand(variables));
+                case ADD -> headers.add(name, value.expand(variables));
+                case REMOVE -> headers.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Header value split into literal text and {@code {variable}} references
+     */
+    private static final class HeaderTemplate {
+
+        private final String[] literals;
+        private final String[] variables;
+        private final int literalLength;
+
+        private HeaderTemplate(String[] literals, String[] variables) {
+            this.literals = literals;
+            this.variables = variables;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static HeaderTemplate compile(String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int position = 0;
+            int open;
+            while ((open = source.indexOf('{', position)) >= 0) {
+                int close = source.indexOf('}', open);
+                if (close < 0) {
+                    break;
+                }
+                literals.add(source.substring(position, open));
+                variables.add(source.substring(open + 1, close).trim().intern());
+                position = close + 1;
+            }
+            literals.add(source.substring(position));
+            return new HeaderTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+        }
+
+        boolean hasVariables() {
+            return variables.length > 0;
+        }
+
+        void requireVariables(Map<String, String> values) {
+            for (String variable : variables) {
+                if (!values.containsKey(variable)) {
+                    throw new IllegalArgumentException("Header rule variable {" + variable
+                            + "} is not a path variable of this request");
+                }
+            }
+        }
+
+        String expand(Map<String, String> values) {
+            if (variables.length == 0) {
+                return literals[0];
+            }
+            StringBuilder sb = new StringBuilder(literalLength + 16 * variables.length);
+            for (int i = 0; i < variables.length; i++) {
+                sb.append(literals[i]).append(values.get(variables[i]));
+            }
+            return sb.append(literals[variables.length]).toString();
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        private List<String> rules = new ArrayList<>();
+    }
+}
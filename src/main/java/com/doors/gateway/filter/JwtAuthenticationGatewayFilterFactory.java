@@ -0,0 +1,241 @@
+package com.doors.gateway.filter;
+
+import com.doors.gateway.jwt.JwkKeySources;
+import com.doors.gateway.jwt.JwkKeys;
+import com.doors.gateway.jwt.VerifiedTokenCache;
+import com.doors.gateway.jwt.VerifiedTokenCache.TokenKey;
+import com.doors.gateway.jwt.VerifiedTokenCache.VerifiedToken;
+import com.doors.gateway.jwt.VerifiedTokenCaches;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Verifies the bearer JWT of each request against a JWK set and forwards selected claims
+ * upstream as headers. Verified tokens are cached per route, across route refreshes,
+ * until they expire, so repeat requests with the same token skip parsing and signature checks.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<JwtAuthenticationGatewayFilterFactory.Config> {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final long DEFAULT_CACHE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final JwkKeySources keySources;
+    private final VerifiedTokenCaches tokenCaches;
+    private final JWSVerifierFactory verifierFactory;
+
+    @Autowired
+    public JwtAuthenticationGatewayFilterFactory(JwkKeySources keySources, VerifiedTokenCaches tokenCaches) {
+        this(keySources, tokenCaches, new DefaultJWSVerifierFactory());
+    }
+
+    JwtAuthenticationGatewayFilterFactory(JwkKeySources keySources, VerifiedTokenCaches tokenCaches,
+                                          JWSVerifierFactory verifierFactory) {
+        super(Config.class);
+        this.keySources = keySources;
+        this.tokenCaches = tokenCaches;
+        this.verifierFactory = verifierFactory;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("jwksFile", "issuer", "audience");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Supplier<JwkKeys> keys;
+        if (StringUtils.hasText(config.getJwks())) {
+            keys = keySources.fromJson(config.getJwks());
+        } else if (StringUtils.hasText(config.getJwksFile())) {
+            keys = keySources.fromFile(config.getJwksFile());
+        } else {
+            throw new IllegalArgumentException("JwtAuthentication needs either jwksFile or jwks");
+        }
+        String[][] claimHeaders = parseClaimHeaders(config.getClaimHeaders());
+        VerifiedTokenCache cache = config.getRouteId() != null
+                ? tokenCaches.obtain(config.getRouteId(), config, config.getCacheSize())
+                : new VerifiedTokenCache(config.getCacheSize());
+
+        return (exchange, chain) -> {
+            String token = bearerToken(exchange.getRequest());
+            if (token == null) {
+                return unauthorized(exchange, "Bearer");
+            }
+            JwkKeys current = keys.get();
+            long now = System.currentTimeMillis();
+            TokenKey key = VerifiedTokenCache.key(token);
+            VerifiedToken verified = cache.get(key, current.getVersion(), now);
+            if (verified == null) {
+                verified = verify(token, current, config, claimHeaders, now);
+                if (verified == null) {
+                    return unauthorized(exchange, "Bearer error=\"invalid_token\"");
+                }
+                cache.put(key, verified);
+            }
+
+            VerifiedToken result = verified;
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> {
+                        // Never let clients supply the claim headers themselves
+                        for (String[] claimHeader : claimHeaders) {
+                            headers.remove(claimHeader[1]);
+                        }
+                        for (int i = 0; i < result.headerNames().length; i++) {
+                            headers.set(result.headerNames()[i], result.headerValues()[i]);
+                        }
+                    })
+                    .build();
+            return chain.filter(exchange.mutate().request(request).build());
+        };
+    }
+
+    private VerifiedToken verify(String token, JwkKeys keys, Config config, String[][] claimHeaders, long now) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            if (!verifySignature(jwt, keys)) {
+                return null;
+            }
+
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            long skew = config.getClockSkewSeconds() * 1000L;
+            Date expiration = claims.getExpirationTime();
+            if (expiration == null ? config.isRequireExpiration() : now - skew >= expiration.getTime()) {
+                return null;
+            }
+            Date notBefore = claims.getNotBeforeTime();
+            if (notBefore != null && now + skew < notBefore.getTime()) {
+                return null;
+            }
+            if (StringUtils.hasText(config.getIssuer()) && !config.getIssuer().equals(claims.getIssuer())) {
+                return null;
+            }
+            if (StringUtils.hasText(config.getAudience())
+                    && (claims.getAudience() == null || !claims.getAudience().contains(config.getAudience()))) {
+                return null;
+            }
+
+            List<String> names = new ArrayList<>(claimHeaders.length);
+            List<String> values = new ArrayList<>(claimHeaders.length);
+            for (String[] claimHeader : claimHeaders) {
+                Object value = claims.getClaim(claimHeader[0]);
+                if (value != null) {
+                    names.add(claimHeader[1]);
+                    values.add(value instanceof Collection<?> collection
+                            ? StringUtils.collectionToCommaDelimitedString(collection)
+                            : value.toString());
+                }
+            }
+            long expiresAt = expiration != null ? expiration.getTime() + skew : now + DEFAULT_CACHE_MILLIS;
+            return new VerifiedToken(keys.getVersion(), expiresAt,
+                    names.toArray(new String[0]), values.toArray(new String[0]));
+        } catch (ParseException | JOSEException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean verifySignature(SignedJWT jwt, JwkKeys keys) throws JOSEException {
+        for (Key key : keys.select(jwt.getHeader())) {
+            if (jwt.verify(verifierFactory.createJWSVerifier(jwt.getHeader(), key))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String bearerToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String challenge) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        return response.setComplete();
+    }
+
+    /**
+     * Parse "claim:Header-Name" pairs separated by commas
+     */
+    private static String[][] parseClaimHeaders(String source) {
+        List<String[]> pairs = new ArrayList<>();
+        if (StringUtils.hasText(source)) {
+            for (String pair : source.split(",")) {
+                String[] parts = pair.trim().split(":", 2);
+                if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                    throw new IllegalArgumentException("Invalid claim header mapping '" + pair + "', expected claim:Header-Name");
+                }
+                pairs.add(new String[]{parts[0].trim(), parts[1].trim().intern()});
+            }
+        }
+        return pairs.toArray(new String[0][]);
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * JWK set file, re-read when it changes
+         */
+        private String jwksFile;
+
+        /**
+         * Inline JWK set JSON, used instead of jwksFile when set
+         */
+        private String jwks;
+
+        private String issuer;
+
+        private String audience;
+
+        /**
+         * Claims forwarded upstream, e.g. sub:X-User-Id,email:X-User-Email
+         */
+        private String claimHeaders = "sub:X-Auth-Subject";
+
+        private boolean requireExpiration = true;
+
+        private long clockSkewSeconds = 30;
+
+        /**
+         * Maximum number of verified tokens remembered for this route, 0 to verify every request
+         */
+        private int cacheSize = 10_000;
+    }
+}
@@ -0,0 +1,193 @@
+package com.doors.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route limits on request header size, body size and upload rate. The body limit
+ * is checked against Content-Length up front and counted again while the body streams,
+ * so chunked uploads are cut off with 413 as soon as they cross it. The header limit can
+ * only be lower than {@code server.max-http-request-header-size}, which the server enforces
+ * for all routes before any filter runs.
+ */
+@Component
+public class RequestLimitsGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestLimitsGatewayFilterFactory.Config> {
+
+    public static final String REJECTED_METRIC = "gateway.requests.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private final DataSize serverMaxHeaderSize;
+
+    public RequestLimitsGatewayFilterFactory(MeterRegistry meterRegistry,
+                                             @Value("${server.max-http-request-header-size:8KB}") DataSize serverMaxHeaderSize) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.serverMaxHeaderSize = serverMaxHeaderSize;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxBodySize", "maxHeaderSize", "maxUploadRate");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long maxBodyBytes = toBytes(config.getMaxBodySize());
+        long maxHeaderBytes = toBytes(config.getMaxHeaderSize());
+        // Netty answers 431 itself above the server limit, so a larger route limit would never apply
+        if (maxHeaderBytes > serverMaxHeaderSize.toBytes()) {
+            throw new IllegalArgumentException("RequestLimits maxHeaderSize " + config.getMaxHeaderSize()
+                    + " exceeds server.max-http-request-header-size " + serverMaxHeaderSize);
+        }
+        long maxBytesPerSecond = toBytes(config.getMaxUploadRate());
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Counter bodyRejections = rejectionCounter(routeId, "body_size");
+        Counter headerRejections = rejectionCounter(routeId, "header_size");
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (maxHeaderBytes > 0 && headerSize(request.getHeaders()) > maxHeaderBytes) {
+                headerRejections.increment();
+                return reject(exchange, HttpStatus.REQUEST_HEADER_FIELDS_TOO_LARGE);
+            }
+            if (maxBodyBytes > 0 && request.getHeaders().getContentLength() > maxBodyBytes) {
+                bodyRejections.increment();
+                return reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE);
+            }
+            if (maxBodyBytes <= 0 && maxBytesPerSecond <= 0) {
+                return chain.filter(exchange);
+            }
+
+            ServerHttpRequest limited = new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return limitBody(super.getBody(), maxBodyBytes, maxBytesPerSecond);
+                }
+            };
+            return chain.filter(exchange.mutate().request(limited).build())
+                    .onErrorResume(RequestLimitsGatewayFilterFactory::isBodyTooLarge, e -> {
+                        bodyRejections.increment();
+                        // Upstream already answered, all we can do is drop the connection
+                        if (exchange.getResponse().isCommitted()) {
+                            return Mono.error(e);
+                        }
+                        return reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE);
+                    });
+        };
+    }
+
+    /**
+     * Count the body as it streams and pace it to the upload rate. Failing the body
+     * publisher aborts the proxied request, which closes the upstream connection.
+     */
+    private Flux<DataBuffer> limitBody(Flux<DataBuffer> body, long maxBodyBytes, long maxBytesPerSecond) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            long[] received = {0};
+            return body.concatMap(buffer -> {
+                received[0] += buffer.readableByteCount();
+                if (maxBodyBytes > 0 && received[0] > maxBodyBytes) {
+                    DataBufferUtils.release(buffer);
+                    return Mono.error(new RequestBodyTooLargeException(maxBodyBytes));
+                }
+                if (maxBytesPerSecond > 0) {
+                    long due = start + (long) (received[0] * 1e9 / maxBytesPerSecond) - System.nanoTime();
+                    if (due > 0) {
+                        return Mono.just(buffer).delayElement(Duration.ofNanos(due));
+                    }
+                }
+                return Mono.just(buffer);
+            }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        // The client may still be sending, don't keep reading from this connection
+        response.getHeaders().setConnection("close");
+        return response.setComplete();
+    }
+
+    private Counter rejectionCounter(String routeId, String reason) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Requests rejected by RequestLimits")
+                .tag("routeId", routeId)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static long headerSize(HttpHeaders headers) {
+        long size = 0;
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            for (String value : entry.getValue()) {
+                // name + ": " + value + CRLF
+                size += entry.getKey().length() + value.length() + 4;
+            }
+        }
+        return size;
+    }
+
+    private static boolean isBodyTooLarge(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof RequestBodyTooLargeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long toBytes(DataSize size) {
+        return size == null ? 0 : size.toBytes();
+    }
+
+    static class RequestBodyTooLargeException extends RuntimeException {
+
+        RequestBodyTooLargeException(long maxBodyBytes) {
+            super("Request body exceeds " + maxBodyBytes + " bytes", null, false, false);
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Largest accepted request body, e.g. 10MB
+         */
+        private DataSize maxBodySize;
+
+        /**
+         * Largest accepted total size of the request headers, e.g. 4KB
+         */
+        private DataSize maxHeaderSize;
+
+        /**
+         * Upload bandwidth per request, in bytes per second, e.g. 1MB
+         */
+        private DataSize maxUploadRate;
+    }
+}
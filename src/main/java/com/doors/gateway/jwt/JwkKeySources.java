@@ -0,0 +1,103 @@
+package com.doors.gateway.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared JWK sets for the JwtAuthentication filter. File-backed sets are re-read by a
+ * periodic task when the file's modification time changes, so requests only ever read
+ * the current keys and never touch the disk.
+ */
+@Slf4j
+@Component
+public class JwkKeySources implements DisposableBean {
+
+    private final Map<Path, FileSource> fileSources = new ConcurrentHashMap<>();
+    /**
+     * Inline sets by their JSON, so re-applying a route with the same jwks keeps the key
+     * version and with it the route's cached tokens
+     */
+    private final Map<String, JwkKeys> inlineSets = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Disposable reloadTask;
+
+    public JwkKeySources(@Value("${gateway.jwt.jwks-reload-interval:10s}") Duration reloadInterval) {
+        long millis = reloadInterval.toMillis();
+        this.reloadTask = Schedulers.boundedElastic()
+                .schedulePeriodically(this::reloadAll, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public Supplier<JwkKeys> fromFile(String location) {
+        Path path = Paths.get(location).toAbsolutePath().normalize();
+        return fileSources.computeIfAbsent(path, FileSource::new);
+    }
+
+    public Supplier<JwkKeys> fromJson(String json) {
+        JwkKeys keys = inlineSets.computeIfAbsent(json.strip(), source -> JwkKeys.parse(source, versions.incrementAndGet()));
+        return () -> keys;
+    }
+
+    @Override
+    public void destroy() {
+        reloadTask.dispose();
+    }
+
+    private void reloadAll() {
+        fileSources.values().forEach(FileSource::reload);
+    }
+
+    private final class FileSource implements Supplier<JwkKeys> {
+
+        private final Path path;
+        private volatile JwkKeys keys;
+        private volatile long lastModified;
+
+        FileSource(Path path) {
+            this.path = path;
+            // Fail the route build if the file is unusable from the start
+            if (!reload()) {
+                throw new IllegalArgumentException("Unable to load JWK set from " + path);
+            }
+        }
+
+        @Override
+        public JwkKeys get() {
+            return keys;
+        }
+
+        /**
+         * Re-read the file if it changed; keeps the previous keys when it can't be read
+         */
+        private boolean reload() {
+            try {
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                if (keys != null && modified == lastModified) {
+                    return true;
+                }
+                JwkKeys loaded = JwkKeys.parse(Files.readString(path), versions.incrementAndGet());
+                keys = loaded;
+                lastModified = modified;
+                log.info("Loaded {} keys from JWK set {}", loaded.size(), path);
+                return true;
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Could not reload JWK set {}: {}", path, e.getMessage());
+                return keys != null;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.doors.gateway.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.security.Key;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One loaded JWK set with its keys already converted to JCA keys.
+ * The version changes on every reload so cached verifications can be invalidated.
+ */
+public final class JwkKeys {
+
+    private final JWKSet jwkSet;
+    private final Map<JWK, Key> keys = new IdentityHashMap<>();
+    private final long version;
+
+    private JwkKeys(JWKSet jwkSet, long version) throws JOSEException {
+        this.jwkSet = jwkSet;
+        this.version = version;
+        for (JWK jwk : jwkSet.getKeys()) {
+            Key key = toKey(jwk);
+            if (key != null) {
+                keys.put(jwk, key);
+            }
+        }
+    }
+
+    public static JwkKeys parse(String json, long version) {
+        try {
+            return new JwkKeys(JWKSet.parse(json), version);
+        } catch (ParseException | JOSEException e) {
+            throw new IllegalArgumentException("Invalid JWK set: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Keys that may have signed a token with this header
+     */
+    public List<Key> select(JWSHeader header) {
+        List<Key> selected = new ArrayList<>(1);
+        JWKMatcher matcher = JWKMatcher.forJWSHeader(header);
+        if (matcher == null) {
+            return selected;
+        }
+        for (JWK jwk : new JWKSelector(matcher).select(jwkSet)) {
+            Key key = keys.get(jwk);
+            if (key != null) {
+                selected.add(key);
+            }
+        }
+        return selected;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private static Key toKey(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return rsaKey.toRSAPublicKey();
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return ecKey.toECPublicKey();
+        }
+        if (jwk instanceof OctetSequenceKey octetKey) {
+            return octetKey.toSecretKey();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.doors.gateway.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of tokens that already passed signature and claim checks, kept until the
+ * token expires or the key set is reloaded. Entries are keyed by the token's SHA-256, so
+ * bearer tokens are never held in memory. Expired entries are dropped when looked up, and
+ * each of a fixed number of segments evicts its least recently used entry once full.
+ */
+public class VerifiedTokenCache {
+
+    private static final int SEGMENTS = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Segment[] segments;
+
+    /**
+     * @param maxEntries total capacity; zero or less disables caching
+     */
+    public VerifiedTokenCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            segments = new Segment[0];
+            return;
+        }
+        int segmentCount = Math.min(SEGMENTS, maxEntries);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment((maxEntries + segmentCount - 1) / segmentCount);
+        }
+    }
+
+    /**
+     * Digest to pass to {@link #get} and {@link #put}
+     */
+    public static TokenKey key(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new TokenKey(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    public VerifiedToken get(TokenKey key, long keysVersion, long nowMillis) {
+        if (segments.length == 0) {
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            VerifiedToken verified = segment.get(key);
+            if (verified == null) {
+                return null;
+            }
+            if (verified.keysVersion() != keysVersion || nowMillis >= verified.expiresAt()) {
+                segment.remove(key);
+                return null;
+            }
+            return verified;
+        }
+    }
+
+    public void put(TokenKey key, VerifiedToken verified) {
+        if (segments.length == 0) {
+            return;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, verified);
+        }
+    }
+
+    private Segment segmentFor(TokenKey key) {
+        return segments[Math.floorMod(key.hashCode(), segments.length)];
+    }
+
+    /**
+     * A token's SHA-256 as four longs
+     */
+    public record TokenKey(long a, long b, long c, long d) {
+    }
+
+    /**
+     * Outcome of a successful verification: the claim values to forward as headers
+     */
+    public record VerifiedToken(long keysVersion, long expiresAt, String[] headerNames, String[] headerValues) {
+    }
+
+    /**
+     * Access-ordered map that drops its least recently used entry when over capacity
+     */
+    private static final class Segment extends LinkedHashMap<TokenKey, VerifiedToken> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TokenKey, VerifiedToken> eldest) {
+            return size() > capacity;
+        }
+    }
+}
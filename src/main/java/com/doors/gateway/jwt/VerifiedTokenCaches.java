@@ -0,0 +1,35 @@
+package com.doors.gateway.jwt;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified-token cache of each JwtAuthentication route. Caches outlive route refreshes,
+ * which re-apply every filter factory, so a refresh does not cause a burst of signature
+ * checks; a route only gets an empty cache when its filter settings change.
+ */
+@Component
+public class VerifiedTokenCaches {
+
+    private final Map<String, Registration> caches = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache obtain(String routeId, Object settings, int maxEntries) {
+        return caches.compute(routeId, (id, existing) ->
+                existing != null && existing.settings().equals(settings)
+                        ? existing
+                        : new Registration(settings, new VerifiedTokenCache(maxEntries)))
+                .cache();
+    }
+
+    /**
+     * Forget a deleted route
+     */
+    public void remove(String routeId) {
+        caches.remove(routeId);
+    }
+
+    private record Registration(Object settings, VerifiedTokenCache cache) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.doors.gateway.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit for one route that adapts to the observed upstream round trip time.
+ * Acquiring and releasing are single CAS operations; limit updates are skipped rather
+ * than waited for when another thread is already applying a sample.
+ */
+public abstract class AdaptiveLimiter {
+
+    protected final int minLimit;
+    protected final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    protected AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * Take a slot if the route is under its current limit
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Give the slot back without feeding the limit, e.g. when the client cancelled
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Give the slot back and adjust the limit from the request's round trip time
+     */
+    public void onSample(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            limit = clamp(update(limit, rttNanos, inFlightAtCompletion, dropped));
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    /**
+     * Compute the next limit; only ever called by one thread at a time
+     */
+    protected abstract int update(int currentLimit, long rttNanos, int inFlight, boolean dropped);
+
+    public abstract String getAlgorithm();
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private int clamp(int value) {
+        return Math.min(maxLimit, Math.max(minLimit, value));
+    }
+}
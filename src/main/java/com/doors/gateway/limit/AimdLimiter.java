@@ -0,0 +1,34 @@
+package com.doors.gateway.limit;
+
+/**
+ * Additive increase, multiplicative decrease: grow by one while the route is busy and
+ * healthy, back off when a request fails or exceeds the latency threshold.
+ */
+public class AimdLimiter extends AdaptiveLimiter {
+
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutNanos) {
+        super(initialLimit, minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    @Override
+    protected int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            return (int) (currentLimit * backoffRatio);
+        }
+        // Only grow when the limit is actually being used
+        if (inFlight * 2 >= currentLimit) {
+            return currentLimit + 1;
+        }
+        return currentLimit;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "AIMD";
+    }
+}
@@ -0,0 +1,51 @@
+package com.doors.gateway.limit;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Current adaptive limiter of each route, shared between the filter and the admin UI.
+ * Limiters outlive route refreshes so the learned limit and the in-flight count carry
+ * over; a route only gets a fresh limiter when its limiter settings change.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * The route's limiter, created with {@code factory} if the route has none yet or
+     * its settings differ from the ones the existing limiter was built with
+     */
+    public AdaptiveLimiter obtain(String routeId, Object settings, Supplier<AdaptiveLimiter> factory) {
+        return registrations.compute(routeId, (id, existing) ->
+                existing != null && existing.settings().equals(settings)
+                        ? existing
+                        : new Registration(settings, factory.get()))
+                .limiter();
+    }
+
+    /**
+     * Forget a deleted route
+     */
+    public void remove(String routeId) {
+        registrations.remove(routeId);
+    }
+
+    public AdaptiveLimiter find(String routeId) {
+        Registration registration = routeId == null ? null : registrations.get(routeId);
+        return registration == null ? null : registration.limiter();
+    }
+
+    public Map<String, AdaptiveLimiter> getLimiters() {
+        Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+        registrations.forEach((routeId, registration) -> limiters.put(routeId, registration.limiter()));
+        return limiters;
+    }
+
+    private record Registration(Object settings, AdaptiveLimiter limiter) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.doors.gateway.limit;
+
+/**
+ * Gradient limiter: compares each round trip time with a slowly moving average of past
+ * ones. A rising RTT means requests are queueing upstream, so the limit shrinks in
+ * proportion; a steady RTT lets the limit grow by a queue allowance of sqrt(limit).
+ */
+public class GradientLimiter extends AdaptiveLimiter {
+
+    private static final double LONG_WINDOW_WEIGHT = 1.0 / 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final double backoffRatio;
+    private double longRtt;
+    private double estimatedLimit;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        super(initialLimit, minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = getLimit();
+    }
+
+    @Override
+    protected int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            return (int) estimatedLimit;
+        }
+
+        double shortRtt = rttNanos;
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * LONG_WINDOW_WEIGHT;
+
+        // Let the long average recover quickly once upstream latency drops
+        if (longRtt / shortRtt > 2) {
+            longRtt = shortRtt * 2;
+        }
+
+        // Don't grow when the route isn't using what it has
+        if (inFlight < estimatedLimit / 2) {
+            return currentLimit;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        return (int) estimatedLimit;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "GRADIENT";
+    }
+}
@@ -0,0 +1,29 @@
+package com.doors.gateway.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RoutePage {
+
+    private List<GatewayRouteDefinition> content;
+
+    private RouteQuery query;
+
+    private long totalElements;
+
+    public int getTotalPages() {
+        return (int) ((totalElements + query.getSize() - 1) / query.getSize());
+    }
+
+    public boolean isFirst() {
+        return query.getPage() == 0;
+    }
+
+    public boolean isLast() {
+        return query.getPage() + 1 >= getTotalPages();
+    }
+}
@@ -0,0 +1,33 @@
+package com.doors.gateway.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RouteQuery {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * Search text, matched as word prefixes (or as a URI prefix)
+     */
+    private String q;
+
+    /**
+     * Where to search: any, id, uri or predicate
+     */
+    private String field = "any";
+
+    /**
+     * Sort key: id, uri or order
+     */
+    private String sort = "id";
+
+    private String dir = "asc";
+
+    private int page = 0;
+
+    private int size = DEFAULT_SIZE;
+}
@@ -0,0 +1,308 @@
+package com.doors.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.FilterArgsEvent;
+import org.springframework.cloud.gateway.event.PredicateArgsEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RouteLocator that builds route predicates up front but defers binding and
+ * creating each route's filter chain until the route is first matched.
+ * Lazy filters are placed at their declaration position, so a route using a factory
+ * that returns its own {@link Ordered} filter is built eagerly instead. Which factories
+ * do is decided without applying them: the stock ones in {@link #ORDERED_FILTER_FACTORIES},
+ * plus any other factory seen returning an ordered filter.
+ * The first request to a lazy route builds its chain on the bounded elastic scheduler,
+ * as factories may read files; a chain that fails to build fails every request the same way.
+ */
+@Slf4j
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class LazyRouteDefinitionRouteLocator implements RouteLocator {
+
+    private static final String DEFAULT_FILTERS = "defaultFilters";
+
+    /**
+     * Stock factories whose filters are ordered relative to NettyWriteResponseFilter
+     */
+    static final Set<String> ORDERED_FILTER_FACTORIES = Set.of("ModifyResponseBody", "LocalResponseCache", "JsonToGrpc");
+
+    private final RouteDefinitionLocator routeDefinitionLocator;
+    private final ConfigurationService configurationService;
+    private final GatewayProperties gatewayProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, RoutePredicateFactory> predicateFactories = new LinkedHashMap<>();
+    private final Map<String, GatewayFilterFactory> gatewayFilterFactories = new HashMap<>();
+    /**
+     * Other factories found to return ordered filters, learned when a lazy chain is built
+     */
+    private final Set<String> orderedFactories = ConcurrentHashMap.newKeySet();
+
+    public LazyRouteDefinitionRouteLocator(RouteDefinitionLocator routeDefinitionLocator,
+                                           List<RoutePredicateFactory> predicateFactories,
+                                           List<GatewayFilterFactory> gatewayFilterFactories,
+                                           GatewayProperties gatewayProperties,
+                                           ConfigurationService configurationService,
+                                           ApplicationEventPublisher eventPublisher) {
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.configurationService = configurationService;
+        this.gatewayProperties = gatewayProperties;
+        this.eventPublisher = eventPublisher;
+        predicateFactories.forEach(factory -> this.predicateFactories.put(factory.name(), factory));
+        gatewayFilterFactories.forEach(factory -> this.gatewayFilterFactories.put(factory.name(), factory));
+    }
+
+    @Override
+    public Flux<Route> getRoutes() {
+        Flux<Route> routes = routeDefinitionLocator.getRouteDefinitions().map(this::convertToRoute);
+        if (!gatewayProperties.isFailOnRouteDefinitionError()) {
+            routes = routes.onErrorContinue((error, definition) ->
+                    log.warn("Skipping route definition {}: {}", definition, error.getMessage()));
+        }
+        return routes;
+    }
+
+    private Route convertToRoute(RouteDefinition routeDefinition) {
+        List<FilterDefinition> definitions = new ArrayList<>(gatewayProperties.getDefaultFilters());
+        int defaultFilterCount = definitions.size();
+        definitions.addAll(routeDefinition.getFilters());
+
+        // Unknown filter names should still fail when the route is built, not when it is hit
+        for (FilterDefinition definition : definitions) {
+            if (!gatewayFilterFactories.containsKey(definition.getName())) {
+                throw new IllegalArgumentException("Unable to find GatewayFilterFactory with name " + definition.getName());
+            }
+        }
+
+        boolean lazy = !needsEagerFilters(definitions);
+        MaterializedFilters materialized = new MaterializedFilters(routeDefinition.getId(), definitions, defaultFilterCount, lazy);
+        List<GatewayFilter> filters = new ArrayList<>(definitions.size());
+        if (lazy) {
+            for (int i = 0; i < definitions.size(); i++) {
+                filters.add(new LazyGatewayFilter(materialized, i, materialized.positionalOrder(i)));
+            }
+        } else {
+            filters.addAll(materialized.get());
+        }
+        AnnotationAwareOrderComparator.sort(filters);
+
+        return Route.async(routeDefinition)
+                .asyncPredicate(combinePredicates(routeDefinition))
+                .replaceFilters(filters)
+                .build();
+    }
+
+    /**
+     * Routes with an ordered filter are built now so the chain is sorted from the first request
+     */
+    private boolean needsEagerFilters(List<FilterDefinition> definitions) {
+        for (FilterDefinition definition : definitions) {
+            if (ORDERED_FILTER_FACTORIES.contains(definition.getName()) || orderedFactories.contains(definition.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AsyncPredicate<ServerWebExchange> combinePredicates(RouteDefinition routeDefinition) {
+        List<PredicateDefinition> predicates = routeDefinition.getPredicates();
+        if (predicates == null || predicates.isEmpty()) {
+            return AsyncPredicate.from(exchange -> true);
+        }
+        String routeId = routeDefinition.getId();
+        AsyncPredicate<ServerWebExchange> predicate = lookup(routeId, predicates.get(0));
+        for (PredicateDefinition andPredicate : predicates.subList(1, predicates.size())) {
+            predicate = predicate.and(lookup(routeId, andPredicate));
+        }
+        return predicate;
+    }
+
+    private AsyncPredicate<ServerWebExchange> lookup(String routeId, PredicateDefinition predicate) {
+        RoutePredicateFactory<Object> factory = predicateFactories.get(predicate.getName());
+        if (factory == null) {
+            throw new IllegalArgumentException("Unable to find RoutePredicateFactory with name " + predicate.getName());
+        }
+        Object config = configurationService.with(factory)
+                .name(predicate.getName())
+                .properties(predicate.getArgs())
+                // Same event as RouteDefinitionRouteLocator, e.g. WeightCalculatorWebFilter relies on it
+                .eventFunction((bound, properties) -> new PredicateArgsEvent(
+                        LazyRouteDefinitionRouteLocator.this, routeId, properties))
+                .bind();
+        if (config instanceof HasRouteId hasRouteId) {
+            hasRouteId.setRouteId(routeId);
+        }
+        return factory.applyAsync(config);
+    }
+
+    /**
+     * The filter chain of one route, bound and created on first use. A failure is kept
+     * and returned for every later request instead of binding again each time.
+     */
+    private final class MaterializedFilters {
+
+        private final String routeId;
+        private final List<FilterDefinition> definitions;
+        private final int defaultFilterCount;
+        private final boolean lazy;
+        private volatile List<GatewayFilter> filters;
+        private volatile RuntimeException failure;
+
+        MaterializedFilters(String routeId, List<FilterDefinition> definitions, int defaultFilterCount, boolean lazy) {
+            this.routeId = routeId;
+            this.definitions = definitions;
+            this.defaultFilterCount = defaultFilterCount;
+            this.lazy = lazy;
+        }
+
+        /**
+         * Same numbering as RouteDefinitionRouteLocator: default filters and route
+         * filters are each numbered from 1 in declaration order
+         */
+        int positionalOrder(int index) {
+            return index < defaultFilterCount ? index + 1 : index - defaultFilterCount + 1;
+        }
+
+        /**
+         * The chain if it has been built, null otherwise; throws if building it failed
+         */
+        List<GatewayFilter> built() {
+            RuntimeException error = failure;
+            if (error != null) {
+                throw error;
+            }
+            return filters;
+        }
+
+        List<GatewayFilter> get() {
+            List<GatewayFilter> result = built();
+            if (result == null) {
+                synchronized (this) {
+                    result = built();
+                    if (result == null) {
+                        try {
+                            result = materialize();
+                        } catch (RuntimeException e) {
+                            if (!lazy) {
+                                // Eager routes fail while loading, like RouteDefinitionRouteLocator
+                                throw e;
+                            }
+                            log.error("Unable to build filters of route {}, its requests will fail until it is fixed",
+                                    routeId, e);
+                            failure = e;
+                            throw e;
+                        }
+                        filters = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private List<GatewayFilter> materialize() {
+            long start = System.nanoTime();
+            List<GatewayFilter> result = new ArrayList<>(definitions.size());
+            boolean misplaced = false;
+            for (int i = 0; i < definitions.size(); i++) {
+                FilterDefinition definition = definitions.get(i);
+                String id = i < defaultFilterCount ? DEFAULT_FILTERS : routeId;
+                GatewayFilterFactory<Object> factory = gatewayFilterFactories.get(definition.getName());
+                Object configuration = configurationService.with(factory)
+                        .name(definition.getName())
+                        .properties(definition.getArgs())
+                        // RequestRateLimiter and friends pick up their per-route config from this event
+                        .eventFunction((bound, properties) -> new FilterArgsEvent(
+                                LazyRouteDefinitionRouteLocator.this, id, (Map<String, Object>) properties))
+                        .bind();
+                GatewayFilter filter = factory.apply(id, configuration);
+                if (filter instanceof Ordered ordered) {
+                    orderedFactories.add(definition.getName());
+                    // Only a factory missing from ORDERED_FILTER_FACTORIES gets here on a lazy route
+                    misplaced |= lazy && ordered.getOrder() != positionalOrder(i);
+                    result.add(filter);
+                } else {
+                    result.add(new OrderedGatewayFilter(filter, positionalOrder(i)));
+                }
+            }
+            log.debug("Materialized {} filters for route {} in {} us",
+                    result.size(), routeId, (System.nanoTime() - start) / 1000);
+
+            if (misplaced) {
+                log.warn("Route {} was built lazily but has explicitly ordered filters, rebuilding routes", routeId);
+                eventPublisher.publishEvent(new RefreshRoutesEvent(LazyRouteDefinitionRouteLocator.this));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Placeholder for one filter definition that materializes the whole route chain on first call
+     */
+    private static final class LazyGatewayFilter implements GatewayFilter, Ordered {
+
+        private final MaterializedFilters materialized;
+        private final int index;
+        private final int order;
+
+        LazyGatewayFilter(MaterializedFilters materialized, int index, int order) {
+            this.materialized = materialized;
+            this.index = index;
+            this.order = order;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            List<GatewayFilter> filters;
+            try {
+                filters = materialized.built();
+            } catch (RuntimeException e) {
+                return Mono.error(e);
+            }
+            if (filters != null) {
+                return filters.get(index).filter(exchange, chain);
+            }
+            return Mono.fromCallable(materialized::get)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(built -> built.get(index).filter(exchange, chain));
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public String toString() {
+            return "[Lazy " + materialized.definitions.get(index).getName() + ", order = " + order + "]";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.doors.gateway.route;
+
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds and applies the predicates and filters of a route definition, without publishing
+ * the args events, so a route with bad arguments is rejected when it is saved. With lazy
+ * materialization the filters would otherwise only fail once the route is hit.
+ */
+@Component
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class RouteDefinitionValidator {
+
+    private final ConfigurationService configurationService;
+    private final Map<String, RoutePredicateFactory> predicateFactories = new HashMap<>();
+    private final Map<String, GatewayFilterFactory> gatewayFilterFactories = new HashMap<>();
+
+    public RouteDefinitionValidator(List<RoutePredicateFactory> predicateFactories,
+                                    List<GatewayFilterFactory> gatewayFilterFactories,
+                                    ConfigurationService configurationService) {
+        this.configurationService = configurationService;
+        predicateFactories.forEach(factory -> this.predicateFactories.put(factory.name(), factory));
+        gatewayFilterFactories.forEach(factory -> this.gatewayFilterFactories.put(factory.name(), factory));
+    }
+
+    /**
+     * Errors with the binding or factory error; runs on the bounded elastic scheduler
+     * as some factories read files when applied
+     */
+    public Mono<Void> validate(RouteDefinition routeDefinition) {
+        return Mono.fromRunnable(() -> check(routeDefinition))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private void check(RouteDefinition routeDefinition) {
+        String routeId = routeDefinition.getId();
+        for (PredicateDefinition predicate : routeDefinition.getPredicates()) {
+            RoutePredicateFactory<Object> factory = predicateFactories.get(predicate.getName());
+            if (factory == null) {
+                throw new IllegalArgumentException("Unable to find RoutePredicateFactory with name " + predicate.getName());
+            }
+            Object config = configurationService.with(factory)
+                    .name(predicate.getName())
+                    .properties(predicate.getArgs())
+                    .bind();
+            if (config instanceof HasRouteId hasRouteId) {
+                hasRouteId.setRouteId(routeId);
+            }
+            factory.applyAsync(config);
+        }
+        for (FilterDefinition filter : routeDefinition.getFilters()) {
+            GatewayFilterFactory<Object> factory = gatewayFilterFactories.get(filter.getName());
+            if (factory == null) {
+                throw new IllegalArgumentException("Unable to find GatewayFilterFactory with name " + filter.getName());
+            }
+            Object config = configurationService.with(factory)
+                    .name(filter.getName())
+                    .properties(filter.getArgs())
+                    .bind();
+            factory.apply(routeId, config);
+        }
+    }
+}
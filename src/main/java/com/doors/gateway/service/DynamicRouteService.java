@@ -1,8 +1,14 @@
 package com.doors.gateway.service;
 
+import com.doors.gateway.file.FileRootPolicy;
+import com.doors.gateway.jwt.VerifiedTokenCaches;
+import com.doors.gateway.limit.ConcurrencyLimiterRegistry;
 import com.doors.gateway.model.GatewayFilterDefinition;
 import com.doors.gateway.model.GatewayPredicateDefinition;
 import com.doors.gateway.model.GatewayRouteDefinition;
+import com.doors.gateway.model.RoutePage;
+import com.doors.gateway.model.RouteQuery;
+import com.doors.gateway.route.RouteDefinitionValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
@@ -12,11 +18,16 @@ import org.springframework.cloud.gateway.route.RouteDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
 import org.springframework.cloud.gateway.route.RouteDefinitionWriter;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,42 +36,75 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DynamicRouteService {
 
+    private static final int INDEX_LOAD_ATTEMPTS = 3;
+
     private final RouteDefinitionWriter routeDefinitionWriter;
     private final RouteDefinitionLocator routeDefinitionLocator;
     private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final FileRootPolicy fileRootPolicy;
+    private final VerifiedTokenCaches tokenCaches;
+    private final RouteDefinitionValidator routeValidator;
+    private final RouteIndex routeIndex = new RouteIndex();
 
     /**
      * Add a new route dynamically
      */
     public Mono<String> addRoute(GatewayRouteDefinition gatewayRoute) {
-        try {
-            RouteDefinition routeDefinition = convertToRouteDefinition(gatewayRoute);
-            return routeDefinitionWriter.save(Mono.just(routeDefinition))
-                    .then(Mono.defer(() -> {
-                        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
-                        log.info("Route added successfully: {}", gatewayRoute.getId());
-                        return Mono.just("Route added successfully");
-                    }));
-        } catch (Exception e) {
-            log.error("Error adding route: {}", gatewayRoute.getId(), e);
-            return Mono.error(new RuntimeException("Failed to add route: " + e.getMessage()));
-        }
+        return validated(gatewayRoute)
+                .flatMap(this::saveDefinition);
     }
 
     /**
-     * Update an existing route
+     * Update an existing route; a rejected edit leaves the old route in place
      */
     public Mono<String> updateRoute(GatewayRouteDefinition gatewayRoute) {
-        return deleteRoute(gatewayRoute.getId())
-                .then(addRoute(gatewayRoute));
+        return validated(gatewayRoute)
+                .flatMap(routeDefinition -> deleteDefinition(routeDefinition.getId())
+                        .then(saveDefinition(routeDefinition)));
+    }
+
+    /**
+     * Convert the route and bind its predicates and filters before anything is saved
+     */
+    private Mono<RouteDefinition> validated(GatewayRouteDefinition gatewayRoute) {
+        return Mono.fromCallable(() -> convertToRouteDefinition(gatewayRoute))
+                .flatMap(routeDefinition -> routeValidator.validate(routeDefinition).thenReturn(routeDefinition))
+                .onErrorResume(e -> {
+                    log.error("Error adding route: {}", gatewayRoute.getId(), e);
+                    return Mono.error(new RuntimeException("Failed to add route: " + e.getMessage()));
+                });
+    }
+
+    private Mono<String> saveDefinition(RouteDefinition routeDefinition) {
+        return routeDefinitionWriter.save(Mono.just(routeDefinition))
+                .then(Mono.defer(() -> {
+                    routeIndex.put(convertToGatewayRoute(routeDefinition));
+                    eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+                    log.info("Route added successfully: {}", routeDefinition.getId());
+                    return Mono.just("Route added successfully");
+                }));
     }
 
     /**
      * Delete a route by ID
      */
     public Mono<String> deleteRoute(String routeId) {
+        return deleteDefinition(routeId)
+                .doOnSuccess(result -> {
+                    limiterRegistry.remove(routeId);
+                    tokenCaches.remove(routeId);
+                });
+    }
+
+    /**
+     * Remove the definition only; per-route state such as the learned concurrency
+     * limit is kept so an update does not reset it
+     */
+    private Mono<String> deleteDefinition(String routeId) {
         return routeDefinitionWriter.delete(Mono.just(routeId))
                 .then(Mono.defer(() -> {
+                    routeIndex.remove(routeId);
                     eventPublisher.publishEvent(new RefreshRoutesEvent(this));
                     log.info("Route deleted successfully: {}", routeId);
                     return Mono.just("Route deleted successfully");
@@ -79,6 +123,43 @@ public class DynamicRouteService {
                 .map(this::convertToGatewayRoute);
     }
 
+    /**
+     * Get one page of routes matching the query, served from the in-memory index
+     */
+    public Mono<RoutePage> searchRoutes(RouteQuery query) {
+        return loadIndex(INDEX_LOAD_ATTEMPTS).then(Mono.fromSupplier(() -> routeIndex.search(query)));
+    }
+
+    /**
+     * Fill the index from the route locator unless it is already loaded. A list read while a
+     * route was being written may be missing that write, so it is dropped and read again.
+     */
+    private Mono<Void> loadIndex(int attempts) {
+        return Mono.defer(() -> {
+            if (routeIndex.isLoaded()) {
+                return Mono.empty();
+            }
+            long generation = routeIndex.getGeneration();
+            return getAllRoutes().collectList().flatMap(all -> {
+                if (routeIndex.replaceAll(all, generation) || attempts <= 1) {
+                    // Out of attempts the index stays unloaded and the next search tries again
+                    return Mono.empty();
+                }
+                return loadIndex(attempts - 1);
+            });
+        });
+    }
+
+    /**
+     * Routes changed by someone else (e.g. YAML refresh), rebuild the index on next search
+     */
+    @EventListener
+    public void onRefreshRoutes(RefreshRoutesEvent event) {
+        if (event.getSource() != this) {
+            routeIndex.invalidate();
+        }
+    }
+
     /**
      * Get a specific route by ID
      */
@@ -95,7 +176,11 @@ public class DynamicRouteService {
     private RouteDefinition convertToRouteDefinition(GatewayRouteDefinition gatewayRoute) {
         RouteDefinition routeDefinition = new RouteDefinition();
         routeDefinition.setId(gatewayRoute.getId());
-        routeDefinition.setUri(URI.create(gatewayRoute.getUri()));
+        URI uri = URI.create(gatewayRoute.getUri());
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            validateFileRoot(uri);
+        }
+        routeDefinition.setUri(uri);
 
         // Convert predicates
         List<PredicateDefinition> predicates = new ArrayList<>();
@@ -128,6 +213,31 @@ public class DynamicRouteService {
         return routeDefinition;
     }
 
+    /**
+     * file:// routes are served from this host, so the root must be an existing directory
+     */
+    private void validateFileRoot(URI uri) {
+        Path root;
+        try {
+            root = Paths.get(uri);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid file URI, expected file:///absolute/dir: " + uri);
+        }
+        Path realRoot;
+        try {
+            realRoot = root.toRealPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("File route root does not exist: " + root);
+        }
+        if (!Files.isDirectory(realRoot)) {
+            throw new IllegalArgumentException("File route root is not a directory: " + root);
+        }
+        if (!fileRootPolicy.isAllowed(realRoot)) {
+            throw new IllegalArgumentException("File route root " + root
+                    + " is not under gateway.static-files.allowed-roots " + fileRootPolicy.getAllowedRoots());
+        }
+    }
+
     /**
      * Convert Spring Cloud Gateway RouteDefinition to GatewayRouteDefinition
      */
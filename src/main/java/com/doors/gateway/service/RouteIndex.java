@@ -0,0 +1,241 @@
+package com.doors.gateway.service;
+
+import com.doors.gateway.model.GatewayPredicateDefinition;
+import com.doors.gateway.model.GatewayRouteDefinition;
+import com.doors.gateway.model.RoutePage;
+import com.doors.gateway.model.RouteQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over route ids, URIs and predicate arguments.
+ * Writes are serialized and applied per route; searches read the concurrent maps without locking.
+ * Every write or invalidation bumps a generation, so a full reload that raced with one
+ * can be recognised as stale and thrown away.
+ */
+class RouteIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, GatewayRouteDefinition> routes = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> idTokens = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> predicateTokens = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> uris = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+    private volatile long generation;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Forget the contents so the next search reloads every route
+     */
+    synchronized void invalidate() {
+        generation++;
+        loaded = false;
+    }
+
+    /**
+     * Replace the contents with a full route list read while the index was at
+     * {@code readGeneration}; ignored if anything was written or invalidated since
+     *
+     * @return whether the list was applied
+     */
+    synchronized boolean replaceAll(Collection<GatewayRouteDefinition> all, long readGeneration) {
+        if (readGeneration != generation) {
+            return false;
+        }
+        routes.clear();
+        idTokens.clear();
+        predicateTokens.clear();
+        uris.clear();
+        all.forEach(this::index);
+        generation++;
+        loaded = true;
+        return true;
+    }
+
+    synchronized void put(GatewayRouteDefinition route) {
+        generation++;
+        index(route);
+    }
+
+    synchronized void remove(String id) {
+        generation++;
+        unindex(id);
+    }
+
+    private void index(GatewayRouteDefinition route) {
+        unindex(route.getId());
+        routes.put(route.getId(), route);
+        for (String token : tokenize(route.getId())) {
+            add(idTokens, token, route.getId());
+        }
+        for (String token : predicateTokens(route)) {
+            add(predicateTokens, token, route.getId());
+        }
+        add(uris, normalize(route.getUri()), route.getId());
+    }
+
+    private void unindex(String id) {
+        GatewayRouteDefinition old = routes.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String token : tokenize(old.getId())) {
+            discard(idTokens, token, id);
+        }
+        for (String token : predicateTokens(old)) {
+            discard(predicateTokens, token, id);
+        }
+        discard(uris, normalize(old.getUri()), id);
+    }
+
+    RoutePage search(RouteQuery query) {
+        query.setSize(Math.max(1, Math.min(RouteQuery.MAX_SIZE, query.getSize())));
+        query.setPage(Math.max(0, query.getPage()));
+        String text = normalize(query.getQ());
+        boolean descending = "desc".equalsIgnoreCase(query.getDir());
+        long offset = (long) query.getPage() * query.getSize();
+
+        // The common case needs no sorting, routes are already kept in id order
+        if (text.isEmpty() && !"uri".equals(query.getSort()) && !"order".equals(query.getSort())) {
+            Collection<GatewayRouteDefinition> ordered = descending ? routes.descendingMap().values() : routes.values();
+            List<GatewayRouteDefinition> content = ordered.stream()
+                    .skip(offset)
+                    .limit(query.getSize())
+                    .toList();
+            return new RoutePage(content, query, routes.size());
+        }
+
+        Collection<GatewayRouteDefinition> matches = text.isEmpty() ? routes.values() : lookup(match(text, query.getField()));
+        List<GatewayRouteDefinition> sorted = new ArrayList<>(matches);
+        Comparator<GatewayRouteDefinition> comparator = comparator(query.getSort());
+        sorted.sort(descending ? comparator.reversed() : comparator);
+        int from = (int) Math.min(offset, sorted.size());
+        int to = (int) Math.min(offset + query.getSize(), sorted.size());
+        return new RoutePage(new ArrayList<>(sorted.subList(from, to)), query, sorted.size());
+    }
+
+    private Set<String> match(String text, String field) {
+        String scope = field == null ? "any" : field;
+        Set<String> result = new HashSet<>();
+        if ("any".equals(scope) || "uri".equals(scope)) {
+            result.addAll(prefixUnion(uris, text));
+        }
+        if ("any".equals(scope) || "id".equals(scope)) {
+            result.addAll(allTokens(idTokens, text));
+        }
+        if ("any".equals(scope) || "predicate".equals(scope)) {
+            result.addAll(allTokens(predicateTokens, text));
+        }
+        return result;
+    }
+
+    /**
+     * Routes that have, for every word of the query, an indexed word starting with it
+     */
+    private Set<String> allTokens(NavigableMap<String, Set<String>> index, String text) {
+        Set<String> result = null;
+        for (String token : tokenize(text)) {
+            Set<String> ids = prefixUnion(index, token);
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? Set.of() : result;
+    }
+
+    private Set<String> prefixUnion(NavigableMap<String, Set<String>> index, String prefix) {
+        Set<String> ids = new HashSet<>();
+        for (Set<String> matched : index.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            ids.addAll(matched);
+        }
+        return ids;
+    }
+
+    private List<GatewayRouteDefinition> lookup(Set<String> ids) {
+        List<GatewayRouteDefinition> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            GatewayRouteDefinition route = routes.get(id);
+            if (route != null) {
+                result.add(route);
+            }
+        }
+        return result;
+    }
+
+    private Comparator<GatewayRouteDefinition> comparator(String sort) {
+        Comparator<GatewayRouteDefinition> byId = Comparator.comparing(GatewayRouteDefinition::getId);
+        if ("uri".equals(sort)) {
+            return Comparator.comparing((GatewayRouteDefinition route) -> normalize(route.getUri())).thenComparing(byId);
+        }
+        if ("order".equals(sort)) {
+            return Comparator.comparing((GatewayRouteDefinition route) -> route.getOrder() == null ? 0 : route.getOrder())
+                    .thenComparing(byId);
+        }
+        return byId;
+    }
+
+    private Set<String> predicateTokens(GatewayRouteDefinition route) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (route.getPredicates() != null) {
+            for (GatewayPredicateDefinition predicate : route.getPredicates()) {
+                tokens.addAll(tokenize(predicate.getName()));
+                if (predicate.getArgs() != null) {
+                    predicate.getArgs().values().forEach(value -> tokens.addAll(tokenize(value)));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void add(NavigableMap<String, Set<String>> index, String key, String id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void discard(NavigableMap<String, Set<String>> index, String key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.doors.gateway.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders kept traces as an OTLP/JSON ExportTraceServiceRequest, so the output can be
+ * POSTed to a collector's /v1/traces endpoint as is. Each request becomes a server span
+ * with one child span per phase it reached.
+ */
+@Component
+public class OtlpJsonExporter {
+
+    private static final int KIND_INTERNAL = 1;
+    private static final int KIND_SERVER = 2;
+    private static final int KIND_CLIENT = 3;
+    private static final int STATUS_ERROR = 2;
+
+    private final String serviceName;
+
+    public OtlpJsonExporter(@Value("${spring.application.name:gateway}") String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Map<String, Object> export(List<TraceRecord> records) {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        for (TraceRecord record : records) {
+            spans.add(serverSpan(record));
+            for (Phase phase : Phase.values()) {
+                if (record.offset(phase) >= 0) {
+                    spans.add(phaseSpan(record, phase));
+                }
+            }
+        }
+
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Map.of("name", OtlpJsonExporter.class.getPackageName()));
+        scopeSpans.put("spans", spans);
+
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Map.of("attributes", List.of(attribute("service.name", serviceName))));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+        return Map.of("resourceSpans", List.of(resourceSpans));
+    }
+
+    private Map<String, Object> serverSpan(TraceRecord record) {
+        Map<String, Object> span = span(record, record.spanIdHex(), record.parentSpanId(),
+                record.method() + " " + record.routeId(), KIND_SERVER, 0, record.totalNanos());
+        List<Map<String, Object>> attributes = new ArrayList<>();
+        attributes.add(attribute("http.request.method", record.method()));
+        attributes.add(attribute("url.path", record.path()));
+        attributes.add(intAttribute("http.response.status_code", record.status()));
+        attributes.add(attribute("gateway.route.id", record.routeId()));
+        attributes.add(attribute("gateway.trace.reason", record.reason().name().toLowerCase()));
+        span.put("attributes", attributes);
+        if (record.reason() == TraceRecord.Reason.ERROR) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("code", STATUS_ERROR);
+            if (record.error() != null) {
+                status.put("message", record.error());
+            }
+            span.put("status", status);
+        }
+        return span;
+    }
+
+    private Map<String, Object> phaseSpan(TraceRecord record, Phase phase) {
+        // Child ids only need to be unique within the trace
+        String spanId = String.format("%016x", record.spanId() + phase.ordinal() + 1);
+        long start = record.offset(phase);
+        return span(record, spanId, record.spanIdHex(), phase.getLabel(),
+                phase == Phase.UPSTREAM ? KIND_CLIENT : KIND_INTERNAL, start, start + record.duration(phase));
+    }
+
+    private Map<String, Object> span(TraceRecord record, String spanId, String parentSpanId, String name,
+                                     int kind, long startOffset, long endOffset) {
+        Map<String, Object> span = new LinkedHashMap<>();
+        span.put("traceId", record.traceId());
+        span.put("spanId", spanId);
+        if (parentSpanId != null) {
+            span.put("parentSpanId", parentSpanId);
+        }
+        span.put("name", name);
+        span.put("kind", kind);
+        // 64-bit integers are strings in OTLP/JSON
+        span.put("startTimeUnixNano", String.valueOf(record.startEpochNanos() + startOffset));
+        span.put("endTimeUnixNano", String.valueOf(record.startEpochNanos() + endOffset));
+        return span;
+    }
+
+    private static Map<String, Object> attribute(String key, String value) {
+        return Map.of("key", key, "value", Map.of("stringValue", value));
+    }
+
+    private static Map<String, Object> intAttribute(String key, long value) {
+        return Map.of("key", key, "value", Map.of("intValue", String.valueOf(value)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.doors.gateway.trace;
+
+/**
+ * Consecutive stages of a proxied request, in the order they happen
+ */
+public enum Phase {
+
+    /**
+     * From receipt through the web filters until a route predicate matched
+     */
+    ROUTE_MATCHING("Route matching"),
+
+    /**
+     * Route and global filters up to the routing filter
+     */
+    FILTER_CHAIN("Filter chain"),
+
+    /**
+     * Waiting for a pooled or new upstream connection
+     */
+    CONNECTION("Connection"),
+
+    /**
+     * Sending the request until upstream response headers arrive
+     */
+    UPSTREAM("Upstream"),
+
+    /**
+     * Streaming the response back to the client
+     */
+    RESPONSE("Response");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
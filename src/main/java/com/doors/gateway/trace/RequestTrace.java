@@ -0,0 +1,88 @@
+package com.doors.gateway.trace;
+
+import reactor.util.context.ContextView;
+
+import java.util.Arrays;
+
+/**
+ * Phase timestamps of one in-flight request. Every request gets one so slow and failed
+ * requests can be kept after the fact; it is only a handful of longs, and nothing else
+ * is allocated unless the request ends up being recorded.
+ */
+public final class RequestTrace {
+
+    public static final String ATTRIBUTE = RequestTrace.class.getName();
+
+    private final long startNanos = System.nanoTime();
+    private final long startEpochMillis = System.currentTimeMillis();
+    private final boolean headSampled;
+
+    /**
+     * Start offset of each phase in nanoseconds, -1 until the phase is reached
+     */
+    private final long[] marks = new long[Phase.values().length];
+
+    private Throwable error;
+    private boolean cancelled;
+
+    RequestTrace(boolean headSampled) {
+        this.headSampled = headSampled;
+        Arrays.fill(marks, 1, marks.length, -1);
+    }
+
+    /**
+     * The trace of the request whose Reactor context this is, or null when not tracing
+     */
+    public static RequestTrace from(ContextView context) {
+        return context.getOrDefault(RequestTrace.class, null);
+    }
+
+    /**
+     * Record that {@code phase} starts now. Later marks win, so retried requests
+     * report their last attempt.
+     */
+    public void mark(Phase phase) {
+        marks[phase.ordinal()] = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Like {@link #mark(Phase)} but keeps the first time the phase was reached
+     */
+    public void markFirst(Phase phase) {
+        if (marks[phase.ordinal()] < 0) {
+            mark(phase);
+        }
+    }
+
+    void setError(Throwable error) {
+        this.error = error;
+    }
+
+    void setCancelled() {
+        this.cancelled = true;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    boolean isHeadSampled() {
+        return headSampled;
+    }
+
+    long[] getMarks() {
+        return marks;
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
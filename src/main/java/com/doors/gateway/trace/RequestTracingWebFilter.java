@@ -0,0 +1,42 @@
+package com.doors.gateway.trace;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Starts the trace of every request before anything else runs and hands it to the
+ * recorder once the response is done. The trace travels in an exchange attribute for
+ * gateway filters and in the Reactor context for the upstream HTTP client.
+ */
+public class RequestTracingWebFilter implements WebFilter, Ordered {
+
+    private final TraceRecorder recorder;
+
+    public RequestTracingWebFilter(TraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestTrace trace = recorder.start();
+        exchange.getAttributes().put(RequestTrace.ATTRIBUTE, trace);
+        return chain.filter(exchange)
+                .doOnError(trace::setError)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        trace.setCancelled();
+                    }
+                    recorder.complete(exchange, trace);
+                })
+                .contextWrite(context -> context.put(RequestTrace.class, trace));
+    }
+}
@@ -0,0 +1,35 @@
+package com.doors.gateway.trace;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Global filter that marks the start of a phase at its position in the filter chain
+ */
+public class TraceMarkFilter implements GlobalFilter, Ordered {
+
+    private final int order;
+    private final Phase phase;
+
+    public TraceMarkFilter(int order, Phase phase) {
+        this.order = order;
+        this.phase = phase;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTrace trace = exchange.getAttribute(RequestTrace.ATTRIBUTE);
+        if (trace != null) {
+            trace.markFirst(phase);
+        }
+        return chain.filter(exchange);
+    }
+}
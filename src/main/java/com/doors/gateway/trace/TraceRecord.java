@@ -0,0 +1,83 @@
+package com.doors.gateway.trace;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A finished request kept in the trace buffer
+ *
+ * @param marks start offset of each {@link Phase} in nanoseconds, -1 for phases the request never reached
+ */
+public record TraceRecord(String traceId,
+                          long spanId,
+                          String parentSpanId,
+                          String routeId,
+                          String method,
+                          String path,
+                          int status,
+                          String error,
+                          Reason reason,
+                          long startEpochNanos,
+                          long totalNanos,
+                          long[] marks) {
+
+    private static final DateTimeFormatter TIME_OF_DAY = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    /**
+     * Why the request was kept
+     */
+    public enum Reason {
+        SAMPLED,
+        SLOW,
+        ERROR
+    }
+
+    /**
+     * Time spent in a phase; a phase lasts until the next phase that was reached, or the end of the request
+     */
+    public long duration(Phase phase) {
+        int index = phase.ordinal();
+        if (marks[index] < 0) {
+            return -1;
+        }
+        long end = totalNanos;
+        for (int next = index + 1; next < marks.length; next++) {
+            if (marks[next] >= 0) {
+                end = marks[next];
+                break;
+            }
+        }
+        return Math.max(0, end - marks[index]);
+    }
+
+    public long offset(Phase phase) {
+        return marks[phase.ordinal()];
+    }
+
+    public String millis(Phase phase) {
+        long nanos = duration(phase);
+        return nanos < 0 ? "-" : format(nanos);
+    }
+
+    public String totalMillis() {
+        return format(totalNanos);
+    }
+
+    public Instant startTime() {
+        return Instant.ofEpochSecond(0, startEpochNanos);
+    }
+
+    public String startTimeOfDay() {
+        return TIME_OF_DAY.format(startTime());
+    }
+
+    public String spanIdHex() {
+        return String.format("%016x", spanId);
+    }
+
+    private static String format(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
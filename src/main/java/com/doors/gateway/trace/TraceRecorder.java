@@ -0,0 +1,159 @@
+package com.doors.gateway.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Decides which finished requests to keep and holds them in a fixed-size ring, oldest
+ * overwritten first. Errors and requests slower than the threshold are always kept;
+ * the rest only when picked by the head sample taken at the start of the request.
+ */
+@Component
+public class TraceRecorder {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final Duration slowThreshold;
+    private final long slowNanos;
+    private final AtomicReferenceArray<TraceRecord> ring;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public TraceRecorder(@Value("${gateway.tracing.enabled:true}") boolean enabled,
+                         @Value("${gateway.tracing.sample-rate:0.01}") double sampleRate,
+                         @Value("${gateway.tracing.slow-threshold:500ms}") Duration slowThreshold,
+                         @Value("${gateway.tracing.buffer-size:4096}") int bufferSize) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThreshold = slowThreshold;
+        this.slowNanos = slowThreshold.toNanos();
+        this.ring = new AtomicReferenceArray<>(Math.max(1, bufferSize));
+    }
+
+    public RequestTrace start() {
+        return new RequestTrace(sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Called once the response is done. Requests that matched no route (admin pages,
+     * static resources) are never recorded.
+     */
+    public void complete(ServerWebExchange exchange, RequestTrace trace) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return;
+        }
+        long totalNanos = System.nanoTime() - trace.getStartNanos();
+        int status = status(exchange, trace.getError());
+        boolean failed = trace.getError() != null || trace.isCancelled() || status >= 500;
+
+        TraceRecord.Reason reason;
+        if (failed) {
+            reason = TraceRecord.Reason.ERROR;
+        } else if (totalNanos >= slowNanos) {
+            reason = TraceRecord.Reason.SLOW;
+        } else if (trace.isHeadSampled()) {
+            reason = TraceRecord.Reason.SAMPLED;
+        } else {
+            return;
+        }
+
+        String error = trace.getError() != null ? trace.getError().toString()
+                : trace.isCancelled() ? "Cancelled by client" : null;
+        String[] parent = parseTraceparent(exchange.getRequest().getHeaders().getFirst(TRACEPARENT));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String traceId = parent != null ? parent[0] : String.format("%016x%016x", random.nextLong(), random.nextLong());
+        long spanId = random.nextLong(1, Long.MAX_VALUE);
+
+        TraceRecord record = new TraceRecord(traceId, spanId, parent != null ? parent[1] : null,
+                route.getId(),
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value(),
+                status, error, reason,
+                trace.getStartEpochMillis() * 1_000_000,
+                totalNanos,
+                trace.getMarks().clone());
+        ring.set((int) (sequence.getAndIncrement() % ring.length()), record);
+    }
+
+    /**
+     * Kept requests of one route, newest first; a null route id returns all routes
+     */
+    public List<TraceRecord> recent(String routeId, int limit) {
+        List<TraceRecord> result = new ArrayList<>();
+        long newest = sequence.get() - 1;
+        long oldest = Math.max(0, newest - ring.length() + 1);
+        for (long seq = newest; seq >= oldest && result.size() < limit; seq--) {
+            TraceRecord record = ring.get((int) (seq % ring.length()));
+            if (record != null && (routeId == null || routeId.equals(record.routeId()))) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public int getCapacity() {
+        return ring.length();
+    }
+
+    private static int status(ServerWebExchange exchange, Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().value();
+        }
+        if (error != null) {
+            return 500;
+        }
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        return statusCode != null ? statusCode.value() : 200;
+    }
+
+    /**
+     * Trace id and parent span id of a W3C traceparent header, or null if absent or malformed
+     */
+    private static String[] parseTraceparent(String header) {
+        if (header == null || header.length() != 55) {
+            return null;
+        }
+        String[] parts = header.split("-");
+        if (parts.length != 4 || parts[1].length() != 32 || parts[2].length() != 16
+                || !isHex(parts[1]) || !isHex(parts[2])) {
+            return null;
+        }
+        return new String[]{parts[1], parts[2]};
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
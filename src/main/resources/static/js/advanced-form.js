@@ -42,12 +42,12 @@ function addFilter() {
         <div class="form-group">
             <label>Filter Name</label>
             <input type="text" name="filters[${filterIndex}].name" placeholder="e.g., StripPrefix, AddRequestHeader" />
-            <div class="help-text">Examples: StripPrefix, AddRequestHeader, RewritePath, CircuitBreaker</div>
+            <div class="help-text">Examples: StripPrefix, AddRequestHeader, RewritePath, CircuitBreaker, RequestLimits</div>
         </div>
         <div class="form-group">
             <label>Arguments (key=value, one per line)</label>
             <textarea name="filters[${filterIndex}].args" placeholder="e.g., _genkey_0=1" style="min-height: 60px;"></textarea>
-            <div class="help-text">Format: key=value (one per line). For StripPrefix use: _genkey_0=1</div>
+            <div class="help-text">Format: key=value (one per line). For StripPrefix use: _genkey_0=1. For RequestLimits use: maxBodySize=10MB, maxHeaderSize=16KB, maxUploadRate=1MB</div>
         </div>
     `;
     container.appendChild(div);
@@ -0,0 +1,241 @@
+package com.doors.gateway.filter;
+
+import com.doors.gateway.file.FileMetadataCache;
+import com.doors.gateway.file.FileRootPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class FileRoutingFilterTest {
+
+    @TempDir
+    Path base;
+
+    private Path site;
+    private FileRoutingFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = Files.createDirectory(base.resolve("site"));
+        Path outside = Files.createDirectory(base.resolve("outside"));
+        Files.writeString(outside.resolve("secret.txt"), "secret");
+        Files.writeString(outside.resolve("secret.gz"), "secret-gz");
+        Files.writeString(outside.resolve("secret.br"), "secret-br");
+
+        Files.writeString(site.resolve("index.html"), "<h1>home</h1>");
+        Files.writeString(site.resolve("digits.txt"), "0123456789");
+        Files.writeString(site.resolve("app.js"), "plain");
+        Files.writeString(site.resolve("app.js.gz"), "gzipped");
+        Files.writeString(site.resolve("app.js.br"), "brotli");
+        Files.writeString(site.resolve("style.css"), "plain-css");
+        Files.createSymbolicLink(site.resolve("style.css.gz"), outside.resolve("secret.gz"));
+        Files.createSymbolicLink(site.resolve("style.css.br"), outside.resolve("secret.br"));
+        Files.createSymbolicLink(site.resolve("escape.txt"), outside.resolve("secret.txt"));
+        Files.createSymbolicLink(site.resolve("alias.txt"), site.resolve("digits.txt"));
+
+        filter = new FileRoutingFilter(new FileMetadataCache(Duration.ofSeconds(2)),
+                new FileRootPolicy(List.of(site.toString())));
+    }
+
+    @Test
+    void servesFileAndDirectoryIndex() {
+        MockServerWebExchange file = run(site, "/digits.txt");
+        MockServerWebExchange index = run(site, "/");
+
+        assertThat(file.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(file)).isEqualTo("0123456789");
+        assertThat(file.getResponse().getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(body(index)).isEqualTo("<h1>home</h1>");
+    }
+
+    @Test
+    void dotDotTraversalIsNotFound() {
+        assertNotFound(run(site, "/../outside/secret.txt"));
+        assertNotFound(run(site, "/assets/../../outside/secret.txt"));
+    }
+
+    @Test
+    void encodedDotDotTraversalIsNotFound() {
+        assertNotFound(run(site, "/%2e%2e/outside/secret.txt"));
+        assertNotFound(run(site, "/%2E%2E%2Foutside%2Fsecret.txt"));
+        assertNotFound(run(site, "/%252e%252e/outside/secret.txt"));
+    }
+
+    @Test
+    void symlinkInsideRootIsServed() {
+        assertThat(body(run(site, "/alias.txt"))).isEqualTo("0123456789");
+    }
+
+    @Test
+    void symlinkPointingOutsideRootIsNotFound() {
+        assertNotFound(run(site, "/escape.txt"));
+    }
+
+    @Test
+    void precompressedSiblingsPointingOutsideRootAreIgnored() {
+        MockServerWebExchange gzip = run(site, "/style.css", HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockServerWebExchange brotli = run(site, "/style.css", HttpHeaders.ACCEPT_ENCODING, "br");
+
+        assertThat(body(gzip)).isEqualTo("plain-css");
+        assertThat(gzip.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(body(brotli)).isEqualTo("plain-css");
+        assertThat(brotli.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void rootOutsideAllowedRootsIsNotFound() throws IOException {
+        Path other = Files.createDirectory(base.resolve("other"));
+        Files.writeString(other.resolve("page.html"), "not allowed");
+
+        assertNotFound(run(other, "/page.html"));
+    }
+
+    @Test
+    void singleRangeIsPartialContent() {
+        MockServerWebExchange exchange = run(site, "/digits.txt", HttpHeaders.RANGE, "bytes=2-5");
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(body(exchange)).isEqualTo("2345");
+    }
+
+    @Test
+    void suffixRangeReturnsTheLastBytes() {
+        MockServerWebExchange exchange = run(site, "/digits.txt", HttpHeaders.RANGE, "bytes=-3");
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(body(exchange)).isEqualTo("789");
+    }
+
+    @Test
+    void rangeBeyondTheFileIsNotSatisfiable() {
+        MockServerWebExchange exchange = run(site, "/digits.txt", HttpHeaders.RANGE, "bytes=20-30");
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void multipleRangesGetTheWholeFile() {
+        MockServerWebExchange exchange = run(site, "/digits.txt", HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(exchange)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        String etag = run(site, "/digits.txt").getResponse().getHeaders().getETag();
+
+        MockServerWebExchange exchange = run(site, "/digits.txt", HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertThat(etag).isNotBlank();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void ifRangeHonoursRangeOnlyWhileTheFileIsUnchanged() {
+        String etag = run(site, "/digits.txt").getResponse().getHeaders().getETag();
+
+        MockServerWebExchange current = run(site, "/digits.txt",
+                HttpHeaders.RANGE, "bytes=0-1", HttpHeaders.IF_RANGE, etag);
+        MockServerWebExchange stale = run(site, "/digits.txt",
+                HttpHeaders.RANGE, "bytes=0-1", HttpHeaders.IF_RANGE, "\"stale\"");
+
+        assertThat(current.getResponse().getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(body(current)).isEqualTo("01");
+        assertThat(stale.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(stale)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void precompressedVariantFollowsAcceptEncoding() {
+        assertEncoding(run(site, "/app.js", HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"), "br", "brotli");
+        assertEncoding(run(site, "/app.js", HttpHeaders.ACCEPT_ENCODING, "gzip"), "gzip", "gzipped");
+        assertEncoding(run(site, "/app.js", HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip;q=0.5"), "gzip", "gzipped");
+        assertEncoding(run(site, "/app.js", HttpHeaders.ACCEPT_ENCODING, "br;q=0.0, gzip;q=0"), null, "plain");
+        assertEncoding(run(site, "/app.js"), null, "plain");
+    }
+
+    @Test
+    void rangeRequestsGetTheUncompressedFile() {
+        MockServerWebExchange exchange = run(site, "/app.js",
+                HttpHeaders.ACCEPT_ENCODING, "gzip, br", HttpHeaders.RANGE, "bytes=0-1");
+
+        assertEncoding(exchange, null, "pl");
+    }
+
+    @Test
+    void variantsAddVaryAndTheirOwnEtag() {
+        MockServerWebExchange plain = run(site, "/app.js");
+        MockServerWebExchange gzip = run(site, "/app.js", HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        assertThat(gzip.getResponse().getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getResponse().getHeaders().getETag()).isNotEqualTo(plain.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void otherMethodsAreNotAllowed() {
+        MockServerWebExchange exchange = exchange(site, HttpMethod.POST, "/digits.txt");
+        filter.filter(exchange, next -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    private void assertEncoding(MockServerWebExchange exchange, String encoding, String body) {
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo(encoding);
+        assertThat(body(exchange)).isEqualTo(body);
+    }
+
+    private static void assertNotFound(MockServerWebExchange exchange) {
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private MockServerWebExchange run(Path root, String rawPath, String... headers) {
+        MockServerWebExchange exchange = exchange(root, HttpMethod.GET, rawPath, headers);
+        filter.filter(exchange, next -> Mono.empty()).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    /**
+     * An exchange as RouteToRequestUrlFilter leaves it for a file:// route; the raw path is
+     * used undecoded so encoded traversal reaches the filter as a client would send it
+     */
+    private static MockServerWebExchange exchange(Path root, HttpMethod method, String rawPath, String... headers) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.method(method, URI.create(rawPath));
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("files")
+                .uri(root.toUri())
+                .asyncPredicate(e -> Mono.just(true))
+                .build());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("file://" + rawPath));
+        return exchange;
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,169 @@
+package com.doors.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HeaderRewriteGatewayFilterFactoryTest {
+
+    private final HeaderRewriteGatewayFilterFactory factory = new HeaderRewriteGatewayFilterFactory();
+
+    @Test
+    void validRulesCompile() {
+        filter("request.set X-A 1", "request.add X-B two words", "request.remove Cookie",
+                "response.set X-C {id}", "response.add X-D a-{id}-b", "response.remove Server",
+                "  ", "request.SET X-E upper-case action");
+    }
+
+    @Test
+    void unknownScopeIsRejected() {
+        assertThatThrownBy(() -> filter("upstream.set X-A 1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("scope 'upstream'");
+    }
+
+    @Test
+    void unknownActionIsRejected() {
+        assertThatThrownBy(() -> filter("request.replace X-A 1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("action");
+    }
+
+    @Test
+    void ruleWithoutDotOrHeaderNameIsRejected() {
+        assertThatThrownBy(() -> filter("request X-A 1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter("request.set")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setAndAddNeedAValue() {
+        assertThatThrownBy(() -> filter("request.set X-A"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("needs a value");
+        assertThatThrownBy(() -> filter("response.add X-A"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("needs a value");
+    }
+
+    @Test
+    void removeWithAValueIsRejected() {
+        assertThatThrownBy(() -> filter("request.remove X-Foo bar"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("takes no value");
+    }
+
+    @Test
+    void requestRulesAreAppliedInOrder() {
+        MockServerWebExchange exchange = exchange(Map.of(), "Cookie", "a=b", "X-Old", "old");
+
+        ServerWebExchange forwarded = run(filter(
+                "request.set X-A 1", "request.add X-A 2", "request.remove Cookie",
+                "request.set X-Old new", "request.remove X-Missing"), exchange);
+
+        HttpHeaders headers = forwarded.getRequest().getHeaders();
+        assertThat(headers.get("X-A")).containsExactly("1", "2");
+        assertThat(headers.getFirst("X-Old")).isEqualTo("new");
+        assertThat(headers.containsKey("Cookie")).isFalse();
+    }
+
+    @Test
+    void valuesKeepInnerWhitespace() {
+        ServerWebExchange forwarded = run(filter("request.set X-Note two  spaced words"), exchange(Map.of()));
+
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Note")).isEqualTo("two  spaced words");
+    }
+
+    @Test
+    void responseRulesAreAppliedOnCommit() {
+        MockServerWebExchange exchange = exchange(Map.of());
+        exchange.getResponse().getHeaders().set("Server", "upstream");
+
+        run(filter("response.set X-Frame-Options DENY", "response.add Vary Origin", "response.remove Server"), exchange);
+        exchange.getResponse().setComplete().block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(headers.getFirst("X-Frame-Options")).isEqualTo("DENY");
+        assertThat(headers.get("Vary")).containsExactly("Origin");
+        assertThat(headers.containsKey("Server")).isFalse();
+    }
+
+    @Test
+    void pathVariablesAreExpanded() {
+        MockServerWebExchange exchange = exchange(Map.of("tenant", "acme", "id", "42"));
+
+        ServerWebExchange forwarded = run(filter("request.set X-Tenant {tenant}", "request.set X-Key {tenant}:{ id }/x",
+                "response.set X-Served-By gateway-{id}"), exchange);
+        exchange.getResponse().setComplete().block();
+
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Tenant")).isEqualTo("acme");
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Key")).isEqualTo("acme:42/x");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Served-By")).isEqualTo("gateway-42");
+    }
+
+    @Test
+    void unclosedBraceIsLiteral() {
+        ServerWebExchange forwarded = run(filter("request.set X-Raw {not a variable"), exchange(Map.of()));
+
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Raw")).isEqualTo("{not a variable");
+    }
+
+    @Test
+    void missingPathVariableFailsTheRequest() {
+        MockServerWebExchange exchange = exchange(Map.of("id", "42"), "X-Tenant", "from-client");
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        Mono<Void> result = filter("request.set X-Tenant {tenant}").filter(exchange, next -> {
+            forwarded.set(next);
+            return Mono.empty();
+        });
+
+        assertThatThrownBy(result::block)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{tenant}");
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void missingPathVariableInResponseRuleFailsTheRequest() {
+        Mono<Void> result = filter("response.set X-Tenant {tenant}").filter(exchange(Map.of()), next -> Mono.empty());
+
+        assertThatThrownBy(result::block).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private GatewayFilter filter(String... rules) {
+        HeaderRewriteGatewayFilterFactory.Config config = new HeaderRewriteGatewayFilterFactory.Config();
+        config.setRules(Arrays.asList(rules));
+        return factory.apply(config);
+    }
+
+    private static MockServerWebExchange exchange(Map<String, String> variables, String... headers) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/tenants/acme/orders");
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        ServerWebExchangeUtils.putUriTemplateVariables(exchange, variables);
+        return exchange;
+    }
+
+    private static ServerWebExchange run(GatewayFilter filter, MockServerWebExchange exchange) {
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        filter.filter(exchange, next -> {
+            forwarded.set(next);
+            return Mono.empty();
+        }).block();
+        return forwarded.get();
+    }
+}
@@ -0,0 +1,346 @@
+package com.doors.gateway.filter;
+
+import com.doors.gateway.jwt.JwkKeySources;
+import com.doors.gateway.jwt.VerifiedTokenCaches;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationGatewayFilterFactoryTest {
+
+    private static final String ISSUER = "https://auth.example.com";
+    private static final String AUDIENCE = "orders-api";
+    private static final String KEY_ID = "key-1";
+
+    private static RSAKey signingKey;
+    private static String jwks;
+
+    @TempDir
+    Path tempDir;
+
+    private JwkKeySources keySources;
+    private CountingVerifierFactory verifiers;
+    private JwtAuthenticationGatewayFilterFactory factory;
+    private GatewayFilter filter;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+        jwks = new JWKSet(signingKey.toPublicJWK()).toString();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Short reload interval so JWK set file changes are picked up within the test
+        keySources = new JwkKeySources(Duration.ofMillis(20));
+        verifiers = new CountingVerifierFactory();
+        factory = new JwtAuthenticationGatewayFilterFactory(keySources, new VerifiedTokenCaches(), verifiers);
+        filter = factory.apply(config());
+    }
+
+    @AfterEach
+    void tearDown() {
+        keySources.destroy();
+    }
+
+    @Test
+    void validTokenIsForwardedWithClaimHeaders() throws JOSEException {
+        String token = sign(claims().claim("roles", List.of("admin", "user")).build());
+
+        ServerWebExchange forwarded = run(request(token));
+
+        assertThat(forwarded).isNotNull();
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Auth-Subject")).isEqualTo("alice");
+        assertThat(forwarded.getRequest().getHeaders().getFirst("X-Auth-Roles")).isEqualTo("admin,user");
+    }
+
+    @Test
+    void cachedTokenIsNotVerifiedAgain() throws JOSEException {
+        String token = sign(claims().build());
+
+        assertThat(run(request(token))).isNotNull();
+        ServerWebExchange second = run(request(token));
+
+        assertThat(second).isNotNull();
+        assertThat(second.getRequest().getHeaders().getFirst("X-Auth-Subject")).isEqualTo("alice");
+        assertThat(verifiers.created).hasValue(1);
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryRequest() throws JOSEException {
+        JwtAuthenticationGatewayFilterFactory.Config config = config();
+        config.setCacheSize(0);
+        filter = factory.apply(config);
+        String token = sign(claims().build());
+
+        assertThat(run(request(token))).isNotNull();
+        assertThat(run(request(token))).isNotNull();
+
+        assertThat(verifiers.created).hasValue(2);
+    }
+
+    @Test
+    void reappliedRouteKeepsCachedTokens() throws JOSEException {
+        String token = sign(claims().build());
+        assertThat(run(request(token))).isNotNull();
+
+        // What a route refresh does: the same arguments bound to a new Config
+        filter = factory.apply(config());
+
+        assertThat(run(request(token))).isNotNull();
+        assertThat(verifiers.created).hasValue(1);
+    }
+
+    @Test
+    void reloadedKeySetInvalidatesCachedTokens() throws Exception {
+        Path jwksFile = tempDir.resolve("jwks.json");
+        Files.writeString(jwksFile, jwks);
+        JwtAuthenticationGatewayFilterFactory.Config config = config();
+        config.setJwks(null);
+        config.setJwksFile(jwksFile.toString());
+        filter = factory.apply(config);
+        String token = sign(claims().build());
+        assertThat(run(request(token))).isNotNull();
+
+        // Rotate to a set without the signing key; the cached verification must not outlive it
+        RSAKey rotated = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        Files.writeString(jwksFile, new JWKSet(rotated.toPublicJWK()).toString());
+        Files.setLastModifiedTime(jwksFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (run(request(token)) != null) {
+            assertThat(System.currentTimeMillis()).as("cached token still accepted after key rotation").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void cachedTokenIsRejectedAfterExpiration() throws Exception {
+        JwtAuthenticationGatewayFilterFactory.Config config = config();
+        config.setClockSkewSeconds(1);
+        filter = factory.apply(config);
+        Date expiration = secondsFromNow(1);
+        String token = sign(claims().expirationTime(expiration).build());
+        assertThat(run(request(token))).isNotNull();
+
+        // exp has second precision, so wait until it and the skew have passed
+        long rejectAfter = expiration.getTime() / 1000 * 1000 + 1000;
+        while (System.currentTimeMillis() <= rejectAfter) {
+            Thread.sleep(50);
+        }
+
+        assertRejected(token);
+        assertThat(verifiers.created).hasValue(2);
+    }
+
+    @Test
+    void missingTokenIsRejected() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders"));
+
+        assertThat(run(exchange)).isNull();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws JOSEException {
+        // Beyond the default 30 second clock skew
+        String token = sign(claims().expirationTime(secondsFromNow(-120)).build());
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tokenWithoutExpirationIsRejected() throws JOSEException {
+        String token = sign(claims().expirationTime(null).build());
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tokenNotYetValidIsRejected() throws JOSEException {
+        String token = sign(claims().notBeforeTime(secondsFromNow(120)).build());
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tokenFromOtherIssuerIsRejected() throws JOSEException {
+        String token = sign(claims().issuer("https://evil.example.com").build());
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tokenForOtherAudienceIsRejected() throws JOSEException {
+        String token = sign(claims().audience("billing-api").build());
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tokenSignedWithUnknownKeyIsRejected() throws JOSEException {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims().build());
+        jwt.sign(new RSASSASigner(otherKey));
+
+        assertRejected(jwt.serialize());
+    }
+
+    @Test
+    void hmacTokenKeyedWithRsaPublicKeyIsRejected() throws JOSEException {
+        // Classic algorithm confusion: HS256 using the published RSA key as the shared secret
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID(KEY_ID).build(), claims().build());
+        jwt.sign(new MACSigner(signingKey.toRSAPublicKey().getEncoded()));
+
+        assertRejected(jwt.serialize());
+    }
+
+    @Test
+    void unsignedTokenIsRejected() {
+        String token = new PlainJWT(claims().build()).serialize();
+
+        assertRejected(token);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws JOSEException {
+        String token = sign(claims().build());
+        String[] parts = token.split("\\.");
+        String forged = sign(claims().subject("mallory").build()).split("\\.")[1];
+
+        assertRejected(parts[0] + "." + forged + "." + parts[2]);
+    }
+
+    @Test
+    void clientSuppliedClaimHeadersAreReplaced() throws JOSEException {
+        // No roles claim, so X-Auth-Roles must not reach the upstream at all
+        String token = sign(claims().build());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("X-Auth-Subject", "mallory")
+                .header("X-Auth-Roles", "admin"));
+
+        ServerWebExchange forwarded = run(exchange);
+
+        assertThat(forwarded).isNotNull();
+        assertThat(forwarded.getRequest().getHeaders().get("X-Auth-Subject")).containsExactly("alice");
+        assertThat(forwarded.getRequest().getHeaders().containsKey("X-Auth-Roles")).isFalse();
+    }
+
+    private static JwtAuthenticationGatewayFilterFactory.Config config() {
+        JwtAuthenticationGatewayFilterFactory.Config config = new JwtAuthenticationGatewayFilterFactory.Config();
+        config.setRouteId("orders");
+        config.setJwks(jwks);
+        config.setIssuer(ISSUER);
+        config.setAudience(AUDIENCE);
+        config.setClaimHeaders("sub:X-Auth-Subject,roles:X-Auth-Roles");
+        return config;
+    }
+
+    private void assertRejected(String token) {
+        MockServerWebExchange exchange = request(token);
+
+        assertThat(run(exchange)).isNull();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+                .isEqualTo("Bearer error=\"invalid_token\"");
+    }
+
+    /**
+     * Run the filter and return the exchange passed on to the rest of the chain, or null if it stopped
+     */
+    private ServerWebExchange run(MockServerWebExchange exchange) {
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        filter.filter(exchange, next -> {
+            forwarded.set(next);
+            return Mono.empty();
+        }).block();
+        return forwarded.get();
+    }
+
+    private static MockServerWebExchange request(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private static JWTClaimsSet.Builder claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("alice")
+                .issuer(ISSUER)
+                .audience(AUDIENCE)
+                .expirationTime(secondsFromNow(300));
+    }
+
+    private static String sign(JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static Date secondsFromNow(long seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000);
+    }
+
+    /**
+     * Counts signature checks, i.e. requests not answered from the cache
+     */
+    private static final class CountingVerifierFactory implements JWSVerifierFactory {
+
+        private final DefaultJWSVerifierFactory delegate = new DefaultJWSVerifierFactory();
+        private final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            created.incrementAndGet();
+            return delegate.createJWSVerifier(header, key);
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return delegate.supportedJWSAlgorithms();
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return delegate.getJCAContext();
+        }
+    }
+}